@@ -38,6 +38,7 @@ CREATE TABLE IF NOT EXISTS customers (
 CREATE TABLE IF NOT EXISTS cart_items (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     customer_id BIGINT NOT NULL,
+    menu_item_id BIGINT NULL,
     item_name VARCHAR(100) NOT NULL,
     item_price DECIMAL(6,2) NOT NULL CHECK (item_price >= 0.01 AND item_price <= 9999.99),
     quantity INT NOT NULL DEFAULT 1 CHECK (quantity >= 1 AND quantity <= 100),
@@ -47,7 +48,11 @@ CREATE TABLE IF NOT EXISTS cart_items (
     FOREIGN KEY (customer_id) REFERENCES customers(id) ON DELETE CASCADE,
     INDEX idx_customer_id (customer_id),
     INDEX idx_created_at (created_at),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    -- One line per menu item and status; NULL menu_item_id (lines added by name) never collides
+    CONSTRAINT uk_cart_items_customer_menu_item_status UNIQUE (customer_id, menu_item_id, status),
+    -- Retention sweeps (CartRetentionJob) select by status and age
+    INDEX idx_cart_items_status_updated_at (status, updated_at)
 );
 
 -- Create employees table (base table for Employee entity with JOINED inheritance)
@@ -87,6 +92,12 @@ CREATE TABLE IF NOT EXISTS menu_items (
 -- ============================================================================
 
 -- Drop existing tables if they exist (order matters)
+DROP TABLE IF EXISTS order_status_history;
+DROP TABLE IF EXISTS item_daily_sales;
+DROP TABLE IF EXISTS report_snapshots;
+DROP TABLE IF EXISTS customer_order_history;
+DROP TABLE IF EXISTS order_items_archive;
+DROP TABLE IF EXISTS orders_archive;
 DROP TABLE IF EXISTS order_items;
 DROP TABLE IF EXISTS orders;
 
@@ -127,6 +138,91 @@ CREATE TABLE IF NOT EXISTS order_items (
     INDEX idx_created_at (created_at)
 );
 
+-- Create orders_archive table (Finish/Cancelled orders moved out of orders by OrderArchiveJob)
+-- Same columns and IDs as orders; employee_id is kept without a foreign key
+CREATE TABLE IF NOT EXISTS orders_archive (
+    id BIGINT PRIMARY KEY,
+    customer_id BIGINT NOT NULL,
+    employee_id BIGINT NULL,
+    total_amount DECIMAL(10, 2) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+
+    FOREIGN KEY (customer_id) REFERENCES customers(id) ON DELETE CASCADE,
+
+    INDEX idx_orders_archive_customer (customer_id),
+    INDEX idx_orders_archive_created_at (created_at)
+);
+
+-- Create order_items_archive table (items of the orders in orders_archive)
+CREATE TABLE IF NOT EXISTS order_items_archive (
+    id BIGINT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    item_name VARCHAR(100) NOT NULL,
+    item_price DECIMAL(10, 2) NOT NULL,
+    quantity INT NOT NULL,
+    total DECIMAL(10, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+
+    FOREIGN KEY (order_id) REFERENCES orders_archive(id) ON DELETE CASCADE,
+
+    INDEX idx_order_items_archive_order (order_id)
+);
+
+-- Create customer_order_history table (denormalized read model of a customer's orders)
+-- One row per customer; document holds every order with its items as JSON
+CREATE TABLE IF NOT EXISTS customer_order_history (
+    customer_id BIGINT PRIMARY KEY,
+    document LONGTEXT NOT NULL,
+    order_count INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+
+    FOREIGN KEY (customer_id) REFERENCES customers(id) ON DELETE CASCADE
+);
+
+-- Create order_status_history table (one row per status transition, written by OrderStatusHistory)
+-- No foreign key to orders, so archiving an order keeps its history
+CREATE TABLE IF NOT EXISTS order_status_history (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    from_status VARCHAR(20) NOT NULL,
+    to_status VARCHAR(20) NOT NULL,
+    entered_at TIMESTAMP NOT NULL,
+    changed_at TIMESTAMP NOT NULL,
+
+    INDEX idx_order_status_history_order (order_id),
+    INDEX idx_order_status_history_changed_at (changed_at)
+);
+
+-- Create item_daily_sales table (quantity sold per menu item per day, kept by BestSellerService)
+CREATE TABLE IF NOT EXISTS item_daily_sales (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    sale_date DATE NOT NULL,
+    item_name VARCHAR(100) NOT NULL,
+    quantity BIGINT NOT NULL,
+
+    CONSTRAINT uk_item_daily_sales_day_item UNIQUE (sale_date, item_name)
+);
+
+-- Create report_snapshots table (closed monthly and yearly reports, kept by CachingReportService)
+-- report_month is 0 for a whole year
+CREATE TABLE IF NOT EXISTS report_snapshots (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    report_year INT NOT NULL,
+    report_month INT NOT NULL,
+    total_revenue DECIMAL(14, 2) NOT NULL,
+    total_orders BIGINT NOT NULL,
+    top_menu VARCHAR(100) NOT NULL,
+    top_count BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT uk_report_snapshots_period UNIQUE (report_year, report_month)
+);
+
 -- ============================================================================
 -- SAMPLE INSERTION FOR TESTING (Optional)
 -- ============================================================================
@@ -195,4 +291,28 @@ ALTER TABLE cart_items ADD CONSTRAINT cart_items_chk_status
 -- ALTER TABLE employees ADD COLUMN password VARCHAR(255) NOT NULL;
 -- ALTER TABLE employees ADD INDEX idx_username (username);
 
+-- Step 4: Key cart lines by menu item (CartItemRepository.upsertPending)
+-- (the tables created above already have these; uncomment for a database created before them)
+-- ALTER TABLE cart_items ADD COLUMN menu_item_id BIGINT NULL AFTER customer_id;
+-- Backfill from the menu by name; lines whose item is no longer on the menu stay NULL
+-- UPDATE cart_items c
+-- SET c.menu_item_id = (SELECT MIN(m.id) FROM menu_items m WHERE m.name = c.item_name)
+-- WHERE c.menu_item_id IS NULL;
+-- Merge duplicate lines into the oldest one (quantity capped at 99) before adding the unique key
+-- UPDATE cart_items c
+-- JOIN (SELECT MIN(id) AS keep_id, LEAST(SUM(quantity), 99) AS quantity
+--       FROM cart_items
+--       WHERE menu_item_id IS NOT NULL
+--       GROUP BY customer_id, menu_item_id, status
+--       HAVING COUNT(*) > 1) d ON d.keep_id = c.id
+-- SET c.quantity = d.quantity;
+-- DELETE c FROM cart_items c
+-- JOIN cart_items k ON k.customer_id = c.customer_id
+--     AND k.menu_item_id = c.menu_item_id
+--     AND k.status = c.status
+--     AND k.id < c.id;
+-- ALTER TABLE cart_items ADD CONSTRAINT uk_cart_items_customer_menu_item_status
+--     UNIQUE (customer_id, menu_item_id, status);
 
+-- Step 5: Index for the cart retention sweep (CartRetentionJob)
+-- ALTER TABLE cart_items ADD INDEX idx_cart_items_status_updated_at (status, updated_at);
@@ -0,0 +1,24 @@
+package com.restaurant.demo.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Service-layer metrics.
+ *
+ * Enables @Timed on Spring beans. Every service timer is named "restaurant.*" so the
+ * percentile settings in application.properties apply to all of them at once; HTTP
+ * endpoint timers (http.server.requests) and Hikari pool gauges (hikaricp.*) come from
+ * Actuator auto-configuration. Everything is scraped from /actuator/prometheus on the
+ * management port (management.server.port), not the public application port.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
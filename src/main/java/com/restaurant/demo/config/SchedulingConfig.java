@@ -0,0 +1,13 @@
+package com.restaurant.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. CartRetentionJob).
+ * They share Spring Boot's task scheduler; see spring.task.scheduling.* to size it.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
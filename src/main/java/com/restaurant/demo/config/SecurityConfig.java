@@ -45,11 +45,13 @@ public class SecurityConfig {
         )
             .authenticationProvider(authenticationProvider())
             .authorizeHttpRequests(authz -> authz
-                .requestMatchers("/", "/login", "/register", "/css/**", "/js/**", "/images/**", "/static/**", "/api/customers/login", "/api/customers/register", "/api/customers/**").permitAll()
+                .requestMatchers("/", "/login", "/register", "/css/**", "/js/**", "/images/**", "/static/**", "/api/customers/login", "/api/customers/register", "/api/customers/**", "/api/menuItems/catalog", "/api/menuItems/search").permitAll()
                 .requestMatchers("/customer/**", "/api/cart/**").permitAll()
                 .requestMatchers("/manager/**").permitAll()
                 .requestMatchers("/employee-login", "/employee", "/employee-orders").permitAll() 
                 .requestMatchers("/api/manager/**", "/api/managers/**", "/api/employees/**", "/api/reports/**", "/api/carts/**", "/api/orders/**").permitAll()
+                // Health probe and Prometheus scrape; these exist only on management.server.port
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated()
             )
             .formLogin(form -> form
@@ -0,0 +1,69 @@
+package com.restaurant.demo.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Static asset delivery for the CSS and JS used by the Thymeleaf pages.
+ *
+ * Templates link assets through th:src / th:href, which rewrites them to content-hashed
+ * URLs (e.g. /js/manager-3f2a...e1.js). Hashed URLs never change content, so they are
+ * served with a long-lived immutable Cache-Control; plain URLs must revalidate so a deploy
+ * is picked up at once. Relative module imports ("./db.js") are pointed at the hashed URL
+ * by an import map in the page.
+ * Pre-compressed .br/.gz siblings are served when present; everything else is gzipped
+ * on the fly by server.compression.
+ */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    private static final String[] ASSET_PATHS = {"/css/**", "/js/**"};
+
+    // VersionResourceResolver content strategy appends "-{md5 hex}" before the extension
+    private static final Pattern HASHED_ASSET = Pattern.compile("-[0-9a-f]{32}\\.[^/.]+$");
+
+    @Value("${app.static-assets.max-age:365d}")
+    private Duration hashedAssetMaxAge;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String path : ASSET_PATHS) {
+            String folder = path.substring(0, path.length() - "**".length());
+            registry.addResourceHandler(path)
+                    .addResourceLocations("classpath:/static" + folder)
+                    .resourceChain(true)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AssetCacheControlInterceptor()).addPathPatterns(ASSET_PATHS);
+    }
+
+    private final class AssetCacheControlInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            CacheControl cacheControl = HASHED_ASSET.matcher(request.getRequestURI()).find()
+                    ? CacheControl.maxAge(hashedAssetMaxAge).cachePublic().immutable()
+                    : CacheControl.noCache();
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.restaurant.demo.config.branch;
+
+import com.restaurant.demo.config.replica.ReadYourWritesFilter;
+import com.restaurant.demo.config.replica.ReplicaDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database-per-branch routing.
+ *
+ * spring.datasource is the default branch (app.branch.default, "main"). Each entry under
+ * app.branch.datasources.&lt;id&gt; (url, username, password, driver-class-name, hikari.*)
+ * adds a branch with its own database and connection pool, so a busy branch cannot
+ * exhaust a quiet branch's connections and each branch's tables only hold its own rows.
+ * The Hibernate second-level cache is turned off once there is more than one branch.
+ *
+ * Any branch can have a read replica: app.datasource.replica.* for the default branch,
+ * app.branch.datasources.&lt;id&gt;.replica.* for the others. Read-only transactions on that
+ * branch then read from the replica (see ReplicaDataSource, ReadYourWritesFilter).
+ * With one branch and no replica the DataSource is the plain pool, as before.
+ *
+ * Boot only publishes hikaricp.* gauges for the pool it can unwrap from the DataSource bean,
+ * so every pool built here (replicas included) gets its own Micrometer tracker, tagged with
+ * its pool name. The routing DataSource and ReplicaDataSource close the pools they hide on
+ * shutdown.
+ */
+@Configuration
+public class BranchConfig {
+
+    private static final String DATASOURCES_PREFIX = "app.branch.datasources";
+    private static final String DEFAULT_REPLICA_PREFIX = "app.datasource.replica";
+
+    @Bean
+    public Branches branches(Environment environment) {
+        String defaultBranch = environment.getProperty("app.branch.default", "main");
+        List<String> ids = new ArrayList<>();
+        ids.add(defaultBranch);
+        for (String id : bindBranchDataSources(environment).keySet()) {
+            if (id.equals(defaultBranch)) {
+                throw new IllegalArgumentException(DATASOURCES_PREFIX + "." + id
+                        + " clashes with the default branch, which uses spring.datasource");
+            }
+            ids.add(id);
+        }
+        BranchContext.setDefaultBranch(defaultBranch);
+        return new Branches(defaultBranch, ids);
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Branches branches, Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry) throws Exception {
+        Binder binder = Binder.get(environment);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        HikariDataSource defaultPool = pool(properties, binder, "spring.datasource.hikari", null, registry);
+        DataSource defaultBranch = withReplica(defaultPool, binder, DEFAULT_REPLICA_PREFIX, branches.defaultBranch(), registry);
+        if (!branches.isMultiBranch()) {
+            return defaultBranch;
+        }
+
+        Map<Object, Object> pools = new HashMap<>();
+        pools.put(branches.defaultBranch(), defaultBranch);
+        for (Map.Entry<String, DataSourceProperties> entry : bindBranchDataSources(environment).entrySet()) {
+            String prefix = DATASOURCES_PREFIX + "." + entry.getKey();
+            HikariDataSource pool = pool(entry.getValue(), binder, prefix + ".hikari", "branch-" + entry.getKey(), registry);
+            pools.put(entry.getKey(), withReplica(pool, binder, prefix + ".replica", entry.getKey(), registry));
+        }
+
+        BranchRoutingDataSource routing = new BranchRoutingDataSource();
+        routing.setTargetDataSources(pools);
+        // An unknown branch is a bug, never a reason to write into the default database
+        routing.setLenientFallback(false);
+        return routing;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer branchSchemaCustomizer(Branches branches) {
+        return hibernateProperties -> {
+            if (branches.isMultiBranch()) {
+                IntegratorProvider integrators = () -> List.of(new BranchSchemaIntegrator(branches));
+                hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER, integrators);
+                // Cache keys are entity IDs, and every branch database numbers its rows from 1
+                hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionCustomizer(Environment environment) {
+        return hibernateProperties -> {
+            if (replicasConfigured(environment)) {
+                // Holding one connection for the whole EntityManager (open-in-view spans the request) would
+                // keep a request on whichever database its first transaction picked
+                hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                        PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<BranchFilter> branchFilter(Branches branches) {
+        FilterRegistrationBean<BranchFilter> registration = new FilterRegistrationBean<>(new BranchFilter(branches));
+        // After the SQL metrics filter, ahead of Spring Security: loading the user already hits the branch database
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${app.datasource.replica-max-lag:2s}") Duration maxLag) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(maxLag));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+        return registration;
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Binder binder, String hikariPrefix,
+                                         String defaultPoolName, MeterRegistry registry) throws Exception {
+        properties.afterPropertiesSet();
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(hikariPrefix, Bindable.ofInstance(pool));
+        if (pool.getPoolName() == null && defaultPoolName != null) {
+            pool.setPoolName(defaultPoolName);
+        }
+        if (registry != null) {
+            // Set before the pool starts; Boot's own Hikari binder leaves a pool with a tracker alone
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        return pool;
+    }
+
+    private static DataSource withReplica(HikariDataSource primary, Binder binder, String prefix, String branch,
+                                          MeterRegistry registry) throws Exception {
+        DataSourceProperties replica = binder.bind(prefix, DataSourceProperties.class).orElse(null);
+        if (replica == null || replica.getUrl() == null) {
+            return primary;
+        }
+        return ReplicaDataSource.of(primary, pool(replica, binder, prefix + ".hikari", "branch-" + branch + "-replica", registry));
+    }
+
+    private static boolean replicasConfigured(Environment environment) {
+        if (environment.containsProperty(DEFAULT_REPLICA_PREFIX + ".url")) {
+            return true;
+        }
+        return bindBranchDataSources(environment).keySet().stream()
+                .anyMatch(id -> environment.containsProperty(DATASOURCES_PREFIX + "." + id + ".replica.url"));
+    }
+
+    private static Map<String, DataSourceProperties> bindBranchDataSources(Environment environment) {
+        return Binder.get(environment)
+                .bind(DATASOURCES_PREFIX, Bindable.mapOf(String.class, DataSourceProperties.class))
+                .map(map -> (Map<String, DataSourceProperties>) new LinkedHashMap<>(map))
+                .orElseGet(LinkedHashMap::new);
+    }
+}
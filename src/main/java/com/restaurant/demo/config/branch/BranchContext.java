@@ -0,0 +1,70 @@
+package com.restaurant.demo.config.branch;
+
+import java.util.function.Supplier;
+
+/**
+ * The branch the current thread works for.
+ *
+ * BranchFilter sets it for each request; background work (scheduled jobs, startup warm-up)
+ * runs on the default branch unless it switches explicitly with {@link #run} or
+ * {@link #call}. The routing DataSource and every BranchLocal read it.
+ */
+public final class BranchContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private static volatile String defaultBranch = "main";
+
+    private BranchContext() {}
+
+    /**
+     * @return The branch bound to this thread, or the default branch if none is
+     */
+    public static String current() {
+        String branch = CURRENT.get();
+        return branch != null ? branch : defaultBranch;
+    }
+
+    public static String defaultBranch() {
+        return defaultBranch;
+    }
+
+    static void setDefaultBranch(String branch) {
+        defaultBranch = branch;
+    }
+
+    static void set(String branch) {
+        CURRENT.set(branch);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Run a task against another branch, restoring the previous branch afterwards
+     */
+    public static void run(String branch, Runnable task) {
+        call(branch, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Call a task against another branch, restoring the previous branch afterwards
+     */
+    public static <T> T call(String branch, Supplier<T> task) {
+        String previous = CURRENT.get();
+        CURRENT.set(branch);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.restaurant.demo.config.branch;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds each request to a branch.
+ *
+ * The branch comes from the X-Branch header (API clients) or the branch request parameter,
+ * else from the session, else the default branch. Once a session has a branch it keeps it:
+ * customer, employee and manager IDs in the session belong to that branch's database, so
+ * asking for another branch is rejected until the user logs out.
+ */
+class BranchFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "X-Branch";
+    static final String PARAMETER = "branch";
+    static final String SESSION_ATTRIBUTE = "branch";
+
+    private final Branches branches;
+
+    BranchFilter(Branches branches) {
+        this.branches = branches;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requested = request.getHeader(HEADER);
+        if (requested == null || requested.isBlank()) {
+            requested = request.getParameter(PARAMETER);
+        }
+        HttpSession session = request.getSession(false);
+        String pinned = session != null ? (String) session.getAttribute(SESSION_ATTRIBUTE) : null;
+        if (pinned != null && !branches.contains(pinned)) {
+            // Branch removed from the configuration since the session was created
+            session.invalidate();
+            pinned = null;
+        }
+
+        String branch;
+        if (requested != null && !requested.isBlank()) {
+            if (!branches.contains(requested)) {
+                reject(response, HttpServletResponse.SC_BAD_REQUEST, "Unknown branch");
+                return;
+            }
+            if (pinned != null && !pinned.equals(requested)) {
+                reject(response, HttpServletResponse.SC_CONFLICT,
+                        "Session belongs to branch " + pinned + "; log out to switch branches");
+                return;
+            }
+            branch = requested;
+        } else {
+            branch = pinned != null ? pinned : branches.defaultBranch();
+        }
+
+        BranchContext.set(branch);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            BranchContext.clear();
+            // Pin sessions created by this request (e.g. at login)
+            if (pinned == null) {
+                HttpSession current = request.getSession(false);
+                if (current != null) {
+                    try {
+                        current.setAttribute(SESSION_ATTRIBUTE, branch);
+                    } catch (IllegalStateException e) {
+                        // Invalidated during the request (logout)
+                    }
+                }
+            }
+        }
+    }
+
+    // Written directly: sendError would dispatch to /error, which Spring Security redirects to the login page
+    private static void reject(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"" + message.replace("\"", "'") + "\"}");
+    }
+}
@@ -0,0 +1,37 @@
+package com.restaurant.demo.config.branch;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * One value per branch, picked by {@link BranchContext#current()}; the in-memory
+ * counterpart of routing the DataSource. In-memory read models built from the database
+ * (kitchen index, menu catalog, ...) keep their state in one of these so each branch
+ * sees only its own data.
+ *
+ * @param <T> Type of the per-branch value
+ */
+public final class BranchLocal<T> {
+
+    private final Map<String, T> values = new ConcurrentHashMap<>();
+    private final Supplier<T> initial;
+
+    private BranchLocal(Supplier<T> initial) {
+        this.initial = initial;
+    }
+
+    /**
+     * @param initial Creates the value the first time a branch asks for it; runs on that branch
+     */
+    public static <T> BranchLocal<T> withInitial(Supplier<T> initial) {
+        return new BranchLocal<>(initial);
+    }
+
+    /**
+     * @return The current branch's value
+     */
+    public T get() {
+        return values.computeIfAbsent(BranchContext.current(), branch -> initial.get());
+    }
+}
@@ -0,0 +1,33 @@
+package com.restaurant.demo.config.branch;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Hands out connections from the current branch's pool (see BranchContext).
+ * Transactions bind their connection when they start, so a transaction stays on the
+ * branch it began on.
+ */
+class BranchRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return BranchContext.current();
+    }
+
+    /**
+     * Close every branch's pool. The pools are not beans themselves, so nothing else
+     * shuts them down with the context.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource target : getResolvedDataSources().values()) {
+            if (target instanceof Closeable pool) {
+                pool.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.restaurant.demo.config.branch;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies spring.jpa.hibernate.ddl-auto to every branch database, not only to the default
+ * one Hibernate bootstraps against. Runs while the session factory is being built, so the
+ * tables exist before any bean reads a branch.
+ */
+class BranchSchemaIntegrator implements Integrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BranchSchemaIntegrator.class);
+
+    private final Branches branches;
+
+    BranchSchemaIntegrator(Branches branches) {
+        this.branches = branches;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        for (String branch : branches.ids()) {
+            if (branch.equals(branches.defaultBranch())) {
+                continue; // Hibernate handles the default branch itself
+            }
+            BranchContext.run(branch, () -> SchemaManagementToolCoordinator.process(
+                    metadata, sessionFactory.getServiceRegistry(), sessionFactory.getProperties(),
+                    // Branch databases outlive the session factory; nothing to drop on close
+                    action -> {}));
+            logger.info("Schema management applied to branch {}", branch);
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.restaurant.demo.config.branch;
+
+import java.util.List;
+
+/**
+ * The configured branches. The default branch uses spring.datasource; every other branch
+ * has its own database under app.branch.datasources.&lt;id&gt; (see BranchConfig).
+ */
+public class Branches {
+
+    private final String defaultBranch;
+    private final List<String> ids;
+
+    Branches(String defaultBranch, List<String> ids) {
+        this.defaultBranch = defaultBranch;
+        this.ids = List.copyOf(ids);
+    }
+
+    public String defaultBranch() {
+        return defaultBranch;
+    }
+
+    /**
+     * @return Every branch ID, the default branch first
+     */
+    public List<String> ids() {
+        return ids;
+    }
+
+    public boolean contains(String id) {
+        return ids.contains(id);
+    }
+
+    public boolean isMultiBranch() {
+        return ids.size() > 1;
+    }
+
+    /**
+     * Run a task once per branch, each time bound to that branch
+     */
+    public void forEach(Runnable task) {
+        for (String id : ids) {
+            BranchContext.run(id, task);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.restaurant.demo.config.replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes for replica reads.
+ *
+ * A successful POST / PUT / PATCH / DELETE stamps the session; for app.datasource.replica-max-lag
+ * afterwards the session's requests read from the primary, so e.g. the order page shown
+ * right after placing an order cannot come from a replica that has not caught up yet.
+ * Requests without a session are not tracked.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String LAST_WRITE_ATTRIBUTE = "lastWriteAt";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final long maxLagMillis;
+
+    public ReadYourWritesFilter(Duration maxLag) {
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        Long lastWrite = session != null ? (Long) session.getAttribute(LAST_WRITE_ATTRIBUTE) : null;
+        ReplicaContext.setPrimaryRequired(lastWrite != null && System.currentTimeMillis() - lastWrite < maxLagMillis);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaContext.setPrimaryRequired(false);
+            if (!READ_METHODS.contains(request.getMethod()) && response.getStatus() < 400) {
+                HttpSession current = request.getSession(false);
+                if (current != null) {
+                    try {
+                        current.setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis());
+                    } catch (IllegalStateException e) {
+                        // Invalidated during the request (logout)
+                    }
+                }
+            }
+        }
+    }
+}
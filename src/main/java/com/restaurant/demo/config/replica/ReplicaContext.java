@@ -0,0 +1,53 @@
+package com.restaurant.demo.config.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * Whether read-only work on the current thread may use a replica.
+ *
+ * Read-only transactions normally read from the replica. ReadYourWritesFilter sets
+ * "primary required" for requests from a session that wrote recently, and code that must
+ * see the latest committed state (e.g. rebuilding an in-memory read model right after a
+ * commit) wraps its reads in {@link #onPrimary}.
+ */
+public final class ReplicaContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReplicaContext() {}
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    static void setPrimaryRequired(boolean required) {
+        if (required) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    /**
+     * Run a task with all reads, read-only ones included, going to the primary
+     */
+    public static void onPrimary(Runnable task) {
+        onPrimary(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Call a task with all reads, read-only ones included, going to the primary
+     */
+    public static <T> T onPrimary(Supplier<T> task) {
+        boolean previous = isPrimaryRequired();
+        setPrimaryRequired(true);
+        try {
+            return task.get();
+        } finally {
+            setPrimaryRequired(previous);
+        }
+    }
+}
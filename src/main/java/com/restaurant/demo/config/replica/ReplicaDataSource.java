@@ -0,0 +1,86 @@
+package com.restaurant.demo.config.replica;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Picks the primary or the replica for each new connection: read-only transactions read
+ * from the replica, unless the thread requires the primary (see ReplicaContext) or the
+ * replica cannot hand out a connection. Everything else goes to the primary.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+
+    private ReplicaDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+    }
+
+    /**
+     * Combine a primary and its replica. Hibernate asks for a connection when the transaction
+     * begins, before Spring has marked it read-only, so the physical connection is only
+     * fetched at the first statement, once the transaction's read-only flag is known.
+     *
+     * @param primary The read-write database
+     * @param replica A read-only copy of it
+     * @return DataSource to use in place of the primary; closing it closes both
+     */
+    public static DataSource of(DataSource primary, DataSource replica) {
+        return new Lazy(new ReplicaDataSource(primary, replica));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReplicaContext.isPrimaryRequired()) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            logger.warn("Replica unavailable, reading from the primary: {}", e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Close both pools; they are not beans, so nothing else shuts them down with the context
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource pool : new DataSource[] {replica, primary}) {
+            if (pool instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Lazy extends LazyConnectionDataSourceProxy implements Closeable {
+
+        Lazy(ReplicaDataSource target) {
+            super(target);
+        }
+
+        @Override
+        public void close() throws IOException {
+            ((ReplicaDataSource) obtainTargetDataSource()).close();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.restaurant.demo.config.singleflight;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Concurrent calls of the annotated method with equal arguments (on the same branch) share
+ * one invocation: the first caller runs it, the others wait for and return its result, or
+ * its exception. With ttlMillis the result is also handed to calls arriving that long after
+ * it completed.
+ *
+ * The result is shared between callers, so only annotate methods whose callers do not
+ * modify what they get back. Runs outside the method's transaction. See SingleFlightGroup.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+
+    /**
+     * @return Name for the restaurant.singleflight.calls metric; defaults to Class.method
+     */
+    String name() default "";
+
+    /**
+     * @return How long a completed result keeps being served, in milliseconds (0: only while in flight)
+     */
+    long ttlMillis() default 0;
+}
@@ -0,0 +1,66 @@
+package com.restaurant.demo.config.singleflight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies @SingleFlight: one SingleFlightGroup per annotated method, keyed by the arguments.
+ * Ordered ahead of the transaction interceptor, so callers that share a result never open
+ * a transaction of their own.
+ */
+@Aspect
+public class SingleFlightAspect implements Ordered {
+
+    private final MeterRegistry registry;
+    private final Map<Method, SingleFlightGroup> groups = new ConcurrentHashMap<>();
+
+    public SingleFlightAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public int getOrder() {
+        // Inside ExposeInvocationInterceptor (needed to bind the annotation), outside the
+        // transaction interceptor (LOWEST_PRECEDENCE)
+        return Ordered.LOWEST_PRECEDENCE - 100;
+    }
+
+    @Around("@annotation(singleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, SingleFlight singleFlight) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        SingleFlightGroup group = groups.computeIfAbsent(method, m -> new SingleFlightGroup(
+                singleFlight.name().isEmpty() ? m.getDeclaringClass().getSimpleName() + "." + m.getName() : singleFlight.name(),
+                Duration.ofMillis(singleFlight.ttlMillis()),
+                registry));
+        try {
+            return group.execute(Arrays.asList(joinPoint.getArgs()), () -> {
+                try {
+                    return joinPoint.proceed();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new CheckedFailure(e);
+                }
+            });
+        } catch (CheckedFailure e) {
+            throw e.getCause();
+        }
+    }
+
+    // Carries a checked exception out of the Supplier the group runs
+    private static final class CheckedFailure extends RuntimeException {
+        CheckedFailure(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.restaurant.demo.config.singleflight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables @SingleFlight on Spring beans
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlightAspect singleFlightAspect(MeterRegistry registry) {
+        return new SingleFlightAspect(registry);
+    }
+}
@@ -0,0 +1,95 @@
+package com.restaurant.demo.config.singleflight;
+
+import com.restaurant.demo.config.branch.BranchContext;
+import com.restaurant.demo.config.replica.ReplicaContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations of the same key into one.
+ *
+ * Keys are scoped to the current branch and to whether the caller must read from the
+ * primary, so a read-your-writes request never gets a result read from a replica. Every call
+ * is counted in restaurant.singleflight.calls by outcome: "leader" (computed it), "shared"
+ * (waited for a computation in flight) or "cached" (got a result within the TTL); the
+ * coalescing ratio is (shared + cached) / total.
+ */
+public class SingleFlightGroup {
+
+    private final long ttlMillis;
+    private final Map<List<Object>, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter shared;
+    private final Counter cached;
+
+    public SingleFlightGroup(String name, Duration ttl, MeterRegistry registry) {
+        this.ttlMillis = ttl.toMillis();
+        this.leaders = counter(registry, name, "leader");
+        this.shared = counter(registry, name, "shared");
+        this.cached = counter(registry, name, "cached");
+    }
+
+    /**
+     * Compute the value for a key, or share the computation another caller already started
+     *
+     * @param key Identifies the computation (equals / hashCode); combined with the branch
+     * @param loader Computes the value; runs on the first caller's thread
+     * @return The value, shared by every caller of the same flight
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> loader) {
+        List<Object> scopedKey = Arrays.asList(BranchContext.current(), ReplicaContext.isPrimaryRequired(), key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = flights.putIfAbsent(scopedKey, flight);
+        if (existing != null) {
+            (existing.isDone() ? cached : shared).increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+
+        leaders.increment();
+        T value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(scopedKey, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        flight.complete(value);
+        if (ttlMillis > 0) {
+            CompletableFuture.delayedExecutor(ttlMillis, TimeUnit.MILLISECONDS)
+                    .execute(() -> flights.remove(scopedKey, flight));
+        } else {
+            flights.remove(scopedKey, flight);
+        }
+        return value;
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String outcome) {
+        return Counter.builder("restaurant.singleflight.calls")
+                .description("Calls to single-flight methods, by who computed the result")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,79 @@
+package com.restaurant.demo.config.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a {@link SqlStatementStats} scope per HTTP request and records, per endpoint
+ * (method + URI pattern), how many statements ran, how many rows they touched and how
+ * long JDBC took. Requests over the warning threshold are logged with their totals.
+ */
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementMetricsFilter.class);
+
+    private static final double[] STATEMENT_BUCKETS = {1, 2, 5, 10, 20, 50, 100};
+
+    private final MeterRegistry registry;
+    private final int warnThreshold;
+
+    public SqlStatementMetricsFilter(MeterRegistry registry, int warnThreshold) {
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementStats.end(stats);
+            if (stats.getStatements() > 0) {
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Raw URIs carry IDs; only the mapped pattern is a bounded tag value
+        String uri = pattern != null ? pattern.toString() : "UNMAPPED";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        DistributionSummary.builder("sql.request.statements")
+                .description("SQL statements executed per HTTP request")
+                .serviceLevelObjectives(STATEMENT_BUCKETS)
+                .tags(tags)
+                .register(registry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("sql.request.rows")
+                .description("Rows read or updated per HTTP request")
+                .tags(tags)
+                .register(registry)
+                .record(stats.getRows());
+        Timer.builder("sql.request.time")
+                .description("Time spent in JDBC per HTTP request")
+                .tags(tags)
+                .register(registry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getStatements() > warnThreshold) {
+            logger.warn("{} {} issued {}", request.getMethod(), uri, stats);
+        }
+    }
+}
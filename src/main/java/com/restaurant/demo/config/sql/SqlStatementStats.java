@@ -0,0 +1,74 @@
+package com.restaurant.demo.config.sql;
+
+/**
+ * Per-thread tally of the SQL a unit of work (an HTTP request, a test method) issued.
+ *
+ * Scopes nest: an HTTP request handled inside a test scope is counted in both, so a test
+ * budget still sees every statement even when the request filter opens its own scope.
+ * Statements executed outside any scope are not counted.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatementStats parent;
+    private int statements;
+    private long rows;
+    private long nanos;
+
+    private SqlStatementStats(SqlStatementStats parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Open a new scope on the current thread
+     * @return The scope; pass it to {@link #end(SqlStatementStats)} when the work is done
+     */
+    public static SqlStatementStats begin() {
+        SqlStatementStats stats = new SqlStatementStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Close a scope opened by {@link #begin()}, restoring the enclosing one
+     * @param stats The scope to close
+     */
+    public static void end(SqlStatementStats stats) {
+        if (stats.parent != null) {
+            CURRENT.set(stats.parent);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    static void recordStatement(long elapsedNanos) {
+        for (SqlStatementStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.statements++;
+            stats.nanos += elapsedNanos;
+        }
+    }
+
+    static void recordRows(long count) {
+        if (count <= 0) {
+            return;
+        }
+        for (SqlStatementStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.rows += count;
+        }
+    }
+
+    /** Statements executed (a JDBC batch counts once) */
+    public int getStatements() { return statements; }
+
+    /** Rows read from result sets plus rows reported by updates */
+    public long getRows() { return rows; }
+
+    /** Time spent inside JDBC execute calls */
+    public long getNanos() { return nanos; }
+
+    @Override
+    public String toString() {
+        return String.format("%d statements, %d rows, %.1f ms", statements, rows, nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,160 @@
+package com.restaurant.demo.config.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource wrapper that feeds {@link SqlStatementStats}.
+ *
+ * Connections, statements and result sets are JDK proxies: every execute call is timed
+ * and counted, update counts and ResultSet.next() rows are added up. Sitting below
+ * Hibernate, it also sees JdbcTemplate and native queries. unwrap() reaches the pool,
+ * so Hikari metrics keep working.
+ */
+public class SqlTrackingDataSource extends DelegatingDataSource {
+
+    public SqlTrackingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = super.getConnection(username, password);
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlTrackingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    /**
+     * Forwards calls to the wrapped JDBC object, keeping identity semantics for the proxy itself
+     */
+    private abstract static class ForwardingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        ForwardingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return target.toString();
+                default:
+                    return handle(method, args);
+            }
+        }
+
+        protected Object forward(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        protected abstract Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    private static final class ConnectionHandler extends ForwardingHandler {
+
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        protected Object handle(Method method, Object[] args) throws Throwable {
+            Object result = forward(method, args);
+            // createStatement, prepareStatement and prepareCall; keep the declared statement type
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return proxy(method.getReturnType().asSubclass(Statement.class), new StatementHandler(statement));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler extends ForwardingHandler {
+
+        StatementHandler(Statement target) {
+            super(target);
+        }
+
+        @Override
+        protected Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                Object result = forward(method, args);
+                return name.equals("getResultSet") ? track(result) : result;
+            }
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = forward(method, args);
+            } finally {
+                SqlStatementStats.recordStatement(System.nanoTime() - start);
+            }
+
+            if (result instanceof Integer count) {
+                SqlStatementStats.recordRows(count);
+            } else if (result instanceof Long count) {
+                SqlStatementStats.recordRows(count);
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    SqlStatementStats.recordRows(count);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    SqlStatementStats.recordRows(count);
+                }
+            }
+            return track(result);
+        }
+
+        private static Object track(Object result) {
+            if (result instanceof ResultSet resultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet));
+            }
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler extends ForwardingHandler {
+
+        ResultSetHandler(ResultSet target) {
+            super(target);
+        }
+
+        @Override
+        protected Object handle(Method method, Object[] args) throws Throwable {
+            Object result = forward(method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                SqlStatementStats.recordRows(1);
+            }
+            return result;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.restaurant.demo.dto.OrderStatusUpdateDto;
 import com.restaurant.demo.model.Employee;
 import com.restaurant.demo.service.EmployeeAuthService;
 import com.restaurant.demo.service.OrderService;
+import com.restaurant.demo.service.kitchen.KitchenQueueService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -40,6 +41,9 @@ public class EmployeeController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private KitchenQueueService kitchenQueueService;
+
     /**
      * Authenticate employee login
      * Stores employee ID and username in HTTP session
@@ -94,6 +98,7 @@ public class EmployeeController {
 
     /**
      * Get all orders with optional status filter
+     * Pending and In Progress orders are served from the in-memory kitchen queue
      * 
      * @param status Optional status filter (Pending, In Progress, Finish, Cancelled)
      * @param session HTTP session for authentication check
@@ -121,12 +126,12 @@ public class EmployeeController {
             
             if (status != null && !status.isEmpty()) {
                 // Get orders filtered by status
-                orders = orderService.getAllOrdersByStatus(status);
+                orders = kitchenQueueService.getOrders(status);
                 logger.info("Found {} orders with status: {}", orders.size(), status);
             } else {
                 // Get all orders (you may need to implement this or get all statuses)
                 // For now, get all pending orders by default
-                orders = orderService.getAllOrdersByStatus("Pending");
+                orders = kitchenQueueService.getOrders("Pending");
                 logger.info("Found {} pending orders", orders.size());
             }
             
@@ -226,6 +231,7 @@ public ResponseEntity<?> updateOrderStatus(
 
     /**
      * Get count of pending orders for notification polling
+     * Answered from the in-memory active order index (no database I/O)
      * 
      * @param session HTTP session for authentication check
      * @return ResponseEntity containing count of pending orders
@@ -245,7 +251,7 @@ public ResponseEntity<?> updateOrderStatus(
         logger.info("Fetching pending order count, employeeId: {}", session.getAttribute("employeeId"));
         
         try {
-            Long pendingCount = orderService.getOrderCountByStatus("Pending");
+            Long pendingCount = kitchenQueueService.getOrderCount("Pending");
             
             Map<String, Object> response = new HashMap<>();
             response.put("count", pendingCount);
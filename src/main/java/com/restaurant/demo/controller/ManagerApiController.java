@@ -14,14 +14,22 @@ import com.restaurant.demo.service.MenuItemService;
 import com.restaurant.demo.service.OrderService;
 import com.restaurant.demo.service.ReportService;
 import com.restaurant.demo.service.employee.EmployeeService;
+import com.restaurant.demo.service.export.OrderExportService;
 import com.restaurant.demo.service.employee.dto.EmployeeCredentials;
 import com.restaurant.demo.service.employee.dto.EmployeeRegistrationRequest;
 import com.restaurant.demo.service.employee.dto.EmployeeRegistrationResult;
 import com.restaurant.demo.service.employee.dto.EmployeeUpdateRequest;
+import com.restaurant.demo.service.manager.DashboardService;
 import com.restaurant.demo.service.manager.ManagerContext;
 import com.restaurant.demo.service.manager.SalesReportService;
+import com.restaurant.demo.service.order.OrderStatusHistory;
+import com.restaurant.demo.service.report.BestSellerService;
+import com.restaurant.demo.service.report.CrossBranchReportService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -35,6 +43,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +67,11 @@ public class ManagerApiController {
     private final ManagerService managerService;
     private final OrderService orderService;
     private final ReportService reportService;
+    private final CrossBranchReportService crossBranchReportService;
+    private final OrderExportService orderExportService;
+    private final OrderStatusHistory orderStatusHistory;
+    private final BestSellerService bestSellerService;
+    private final DashboardService dashboardService;
 
     // Constructor-based dependency injection
     // (Spring จะสร้าง instance ของคลาสนี้และฉีด service ที่ต้องการ
@@ -67,7 +82,12 @@ public class ManagerApiController {
                                 MenuItemService menuItemService,
                                 ManagerService managerService,
                                 OrderService orderService,
-                                ReportService reportService) {
+                                ReportService reportService,
+                                CrossBranchReportService crossBranchReportService,
+                                OrderExportService orderExportService,
+                                OrderStatusHistory orderStatusHistory,
+                                BestSellerService bestSellerService,
+                                DashboardService dashboardService) {
         this.managerContext = managerContext;
         this.employeeService = employeeService;
         this.cartService = cartService;
@@ -76,6 +96,11 @@ public class ManagerApiController {
         this.managerService = managerService;
         this.orderService = orderService;
         this.reportService = reportService;
+        this.crossBranchReportService = crossBranchReportService;
+        this.orderExportService = orderExportService;
+        this.orderStatusHistory = orderStatusHistory;
+        this.bestSellerService = bestSellerService;
+        this.dashboardService = dashboardService;
     }
 
     /**
@@ -216,6 +241,104 @@ public class ManagerApiController {
         ReportSummary summary = reportService.getMonthlyReport(month, year);
         return ResponseEntity.ok(summary);
     }
+
+    /**
+     * GET /api/reports/monthly/all-branches - Monthly report summed over every branch
+     */
+    @GetMapping("/reports/monthly/all-branches")
+    public ResponseEntity<?> getMonthlyReportAllBranches(
+            @RequestParam(required = false) Integer month,
+            @RequestParam Integer year,
+            HttpSession session) {
+        if (!isManager(session)) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Unauthorized. Only managers can access the all-branch report.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+
+        ReportSummary summary = crossBranchReportService.getMonthlyReport(month, year);
+        return ResponseEntity.ok(summary);
+    }
+
+    /**
+     * GET /api/reports/best-sellers - Top-selling menu items over a range of days
+     * Summed from the per-day item counts, so long ranges cost the same as short ones
+     *
+     * @param from First day of the range (yyyy-MM-dd, inclusive, default first day of this month)
+     * @param to Last day of the range (yyyy-MM-dd, inclusive, default today)
+     * @param limit How many items to return (1 to 100, default 10)
+     * @param session HTTP session for role-based access control
+     * @return Items with itemName and quantity, best seller first
+     */
+    @GetMapping("/reports/best-sellers")
+    public ResponseEntity<?> getBestSellers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit,
+            HttpSession session) {
+        if (!isManager(session)) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Unauthorized. Only managers can access best sellers.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate first = from != null ? from : today.withDayOfMonth(1);
+        LocalDate last = to != null ? to : today;
+        if (last.isBefore(first) || limit < 1 || limit > 100) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", last.isBefore(first)
+                    ? "'to' must not be before 'from'" : "limit must be between 1 and 100");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        return ResponseEntity.ok(bestSellerService.top(first, last, limit));
+    }
+
+    /**
+     * GET /api/reports/orders/export - Stream order lines for accounting
+     * Rows are written to the response as they are read from the database,
+     * so a full year of data never has to fit in memory
+     *
+     * @param from First day of the range (yyyy-MM-dd, inclusive)
+     * @param to Last day of the range (yyyy-MM-dd, inclusive)
+     * @param format csv (default) or ndjson
+     * @param session HTTP session for role-based access control
+     * @param response Servlet response the export is streamed into
+     * @return Error response, or null once the export has been streamed
+     */
+    @GetMapping("/reports/orders/export")
+    public ResponseEntity<?> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpSession session,
+            HttpServletResponse response) throws IOException {
+        if (!isManager(session)) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Unauthorized. Only managers can export orders.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.fromValue(format);
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("'to' must not be before 'from'");
+            }
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+
+        String filename = String.format("orders_%s_%s.%s", from, to, exportFormat.getExtension());
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        orderExportService.export(from, to, exportFormat, response.getOutputStream());
+
+        // Body already written to the response
+        return null;
+    }
     // ===== Menu Management Endpoints =====
 
     // Task 3.1: POST /api/manager/menu-items - Create new menu item
@@ -292,27 +415,55 @@ public class ManagerApiController {
         }
 
         try {
-            Long pendingCount = orderService.getOrderCountByStatus("Pending");
-            Long inProgressCount = orderService.getOrderCountByStatus("In Progress");
-            Long finishCount = orderService.getOrderCountByStatus("Finish");
-            Long cancelledCount = orderService.getOrderCountByStatus("Cancelled");
-
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("pendingOrders", pendingCount != null ? pendingCount : 0);
-            stats.put("inProgressOrders", inProgressCount != null ? inProgressCount : 0);
-            stats.put("completedOrders", finishCount != null ? finishCount : 0);
-            stats.put("cancelledOrders", cancelledCount != null ? cancelledCount : 0);
-            stats.put("totalOrders", 
-                (pendingCount != null ? pendingCount : 0) + 
-                (inProgressCount != null ? inProgressCount : 0) + 
-                (finishCount != null ? finishCount : 0) + 
-                (cancelledCount != null ? cancelledCount : 0));
-
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(orderService.getOrderStats());
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to fetch order statistics");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
+
+    /**
+     * GET /api/managers/dashboard - Every widget the manager dashboard shows on load, in one request
+     * Widgets are loaded in parallel; one that fails or times out is listed in "unavailable"
+     * instead of failing the whole response
+     *
+     * @param session HTTP session for role-based access control
+     * @return widgets (salesToday, orderStats, kitchenTimes, monthlyReport, menuItems, employees) and unavailable
+     */
+    @GetMapping("/managers/dashboard")
+    public ResponseEntity<?> getDashboard(HttpSession session) {
+        if (!isManager(session)) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Unauthorized. Only managers can access the dashboard.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+
+        return ResponseEntity.ok(dashboardService.load());
+    }
+
+    /**
+     * GET /api/managers/kitchen-times - Live p50/p95 of queue time (Pending) and prep time (In Progress)
+     * Served from in-memory histograms, so it can be polled without touching the database
+     *
+     * @param hours Window in clock hours, 1 (current hour, default) to 24
+     * @param session HTTP session for role-based access control
+     * @return One entry per status with count, p50Seconds and p95Seconds
+     */
+    @GetMapping("/managers/kitchen-times")
+    public ResponseEntity<?> getKitchenTimes(@RequestParam(defaultValue = "1") int hours, HttpSession session) {
+        if (!isManager(session)) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Unauthorized. Only managers can access kitchen times.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+
+        try {
+            return ResponseEntity.ok(orderStatusHistory.timings(hours));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
 }
@@ -1,26 +1,41 @@
 package com.restaurant.demo.controller;
 
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.restaurant.demo.model.MenuItem;
 import com.restaurant.demo.service.MenuItemService;
+import com.restaurant.demo.service.menu.MenuCatalog;
+import com.restaurant.demo.service.menu.MenuSearchIndex;
 
 @RestController
 @RequestMapping("/api/menuItems")
 public class MenuItemController {
 
     private final MenuItemService menuItemService;
+    private final MenuCatalog menuCatalog;
+    private final MenuSearchIndex menuSearchIndex;
 
-    public MenuItemController(MenuItemService menuItemService) {
+    public MenuItemController(MenuItemService menuItemService, MenuCatalog menuCatalog,
+                              MenuSearchIndex menuSearchIndex) {
         this.menuItemService = menuItemService;
+        this.menuCatalog = menuCatalog;
+        this.menuSearchIndex = menuSearchIndex;
     }
 
     // Customer เห็นเมนูที่แสดงในระบบ (active=true)
@@ -29,6 +44,48 @@ public class MenuItemController {
         return menuItemService.getActiveMenuItems();
     }
 
+    /**
+     * GET /api/menuItems/catalog - Active menu grouped by category, for customers
+     * Without sinceVersion (or with a version this server no longer knows) the full catalog is
+     * returned; otherwise only items changed or removed since that version. 304 when up to date.
+     */
+    @GetMapping("/catalog")
+    public ResponseEntity<byte[]> getCatalog(
+            @RequestParam(required = false) Long sinceVersion,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long version = menuCatalog.getVersion();
+        String etag = "\"menu-" + version + "\"";
+        if ((sinceVersion != null && sinceVersion == version) || (sinceVersion == null && etag.equals(ifNoneMatch))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        byte[] body = sinceVersion != null
+                ? menuCatalog.getDeltaJson(sinceVersion).orElseGet(menuCatalog::getFullJson)
+                : menuCatalog.getFullJson();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(body);
+    }
+
+    /**
+     * GET /api/menuItems/search - Autocomplete for the customer search box
+     * Matches name, category and description of active items, Thai included, from memory.
+     *
+     * @param q What the customer typed so far; every word must match
+     * @param limit How many items to return (1 to 50, default 8)
+     * @return Items with id, name, category and price, best match first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam(defaultValue = "") String q,
+                                    @RequestParam(defaultValue = "8") int limit) {
+        if (limit < 1 || limit > 50) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and 50"));
+        }
+        return ResponseEntity.ok(menuSearchIndex.search(q, limit));
+    }
+
     @PostMapping
     public MenuItem addMenuItem(@RequestBody MenuItem menuItem) {
         return menuItemService.addMenuItem(menuItem);
@@ -0,0 +1,12 @@
+package com.restaurant.demo.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Manager dashboard widgets loaded in one request
+ *
+ * @param widgets Widget name to its data, for every widget that loaded in time
+ * @param unavailable Widgets that failed or timed out; the page loads these on their own
+ */
+public record Dashboard(Map<String, Object> widgets, List<String> unavailable) {}
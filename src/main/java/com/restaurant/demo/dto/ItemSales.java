@@ -0,0 +1,6 @@
+package com.restaurant.demo.dto;
+
+/**
+ * Quantity sold of one menu item over a date range
+ */
+public record ItemSales(String itemName, long quantity) {}
@@ -0,0 +1,20 @@
+package com.restaurant.demo.dto;
+
+import com.restaurant.demo.model.OrderStatus;
+
+import java.util.Map;
+
+/**
+ * Order counts per status for the manager dashboard
+ */
+public record OrderStats(long pendingOrders, long inProgressOrders, long completedOrders,
+                         long cancelledOrders, long totalOrders) {
+
+    public static OrderStats of(Map<OrderStatus, Long> counts) {
+        long pending = counts.getOrDefault(OrderStatus.PENDING, 0L);
+        long inProgress = counts.getOrDefault(OrderStatus.IN_PROGRESS, 0L);
+        long finish = counts.getOrDefault(OrderStatus.FINISH, 0L);
+        long cancelled = counts.getOrDefault(OrderStatus.CANCELLED, 0L);
+        return new OrderStats(pending, inProgress, finish, cancelled, pending + inProgress + finish + cancelled);
+    }
+}
@@ -0,0 +1,69 @@
+package com.restaurant.demo.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Finish or Cancelled order moved out of the orders table by OrderArchive.
+ * Same columns and ID as the original row; read-only once written.
+ */
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_customer", columnList = "customer_id"),
+        @Index(name = "idx_orders_archive_created_at", columnList = "created_at")
+})
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", nullable = false)
+    private Customer customer;
+
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    @OneToMany(mappedBy = "order")
+    @OrderBy("id")
+    private List<ArchivedOrderItem> orderItems = new ArrayList<>();
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
+    private Money totalAmount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    protected ArchivedOrder() {}
+
+    // ===== Getter =====
+    public Long getId() { return id; }
+
+    public Customer getCustomer() { return customer; }
+
+    public Long getEmployeeId() { return employeeId; }
+
+    public List<ArchivedOrderItem> getOrderItems() { return orderItems; }
+
+    public String getStatus() { return status; }
+
+    public BigDecimal getTotalAmount() { return totalAmount.toBigDecimal(); }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
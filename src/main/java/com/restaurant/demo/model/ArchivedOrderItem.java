@@ -0,0 +1,59 @@
+package com.restaurant.demo.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An order_items row moved to order_items_archive together with its ArchivedOrder
+ */
+@Entity
+@Table(name = "order_items_archive", indexes = {
+        @Index(name = "idx_order_items_archive_order", columnList = "order_id")
+})
+public class ArchivedOrderItem {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private ArchivedOrder order;
+
+    @Column(name = "item_name", nullable = false, length = 100)
+    private String itemName;
+
+    @Column(name = "item_price", nullable = false, precision = 10, scale = 2)
+    private Money itemPrice;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "total", nullable = false, precision = 10, scale = 2)
+    private Money total;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected ArchivedOrderItem() {}
+
+    // ===== Getter =====
+    public Long getId() { return id; }
+
+    public ArchivedOrder getOrder() { return order; }
+
+    public String getItemName() { return itemName; }
+
+    public BigDecimal getItemPrice() { return itemPrice.toBigDecimal(); }
+
+    public Integer getQuantity() { return quantity; }
+
+    public BigDecimal getTotal() { return total.toBigDecimal(); }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -1,5 +1,6 @@
 package com.restaurant.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -9,7 +10,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", uniqueConstraints = {
+        // One line per menu item in each state of a customer's cart; CartItemRepository.upsertPending relies on it
+        @UniqueConstraint(name = "uk_cart_items_customer_menu_item_status", columnNames = {"customer_id", "menu_item_id", "status"})
+}, indexes = {
+        // Retention sweeps (CartRetentionJob) select by status and age
+        @Index(name = "idx_cart_items_status_updated_at", columnList = "status, updated_at")
+})
 public class CartItem {
 
     // --- เพิ่ม constant สำหรับสถานะ ---
@@ -28,17 +35,18 @@ public class CartItem {
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
 
+    // Null for lines added by name only (no menu item behind them)
+    @Column(name = "menu_item_id")
+    private Long menuItemId;
+
     @NotBlank(message = "Item name is required")
     @Size(min = 1, max = 100, message = "Item name must be between 1 and 100 characters")
     @Column(name = "item_name", nullable = false, length = 100)
     private String itemName;
 
-    @NotNull(message = "Item price is required")
-    @DecimalMin(value = "0.01", message = "Item price must be greater than 0")
-    @DecimalMax(value = "9999.99", message = "Item price must not exceed 9999.99")
-    @Digits(integer = 4, fraction = 2, message = "Item price must have at most 4 integer digits and 2 decimal places")
+    // Price constraints are declared on getItemPrice(); Bean Validation cannot check Money directly
     @Column(name = "item_price", nullable = false, precision = 6, scale = 2)
-    private BigDecimal itemPrice;
+    private Money itemPrice;
 
     @NotNull(message = "Quantity is required")
     @Min(value = 1, message = "Quantity must be at least 1")
@@ -79,7 +87,7 @@ public class CartItem {
     public CartItem(Customer customer, String itemName, BigDecimal itemPrice, Integer quantity) {
         this.customer = customer;
         this.itemName = itemName;
-        this.itemPrice = itemPrice;
+        setItemPrice(itemPrice);
         this.quantity = quantity;
         this.status = STATUS_PENDING; // ใช้ constant
     }
@@ -88,7 +96,7 @@ public class CartItem {
     public CartItem(Customer customer, String itemName, BigDecimal itemPrice, Integer quantity, String status) {
         this.customer = customer;
         this.itemName = itemName;
-        this.itemPrice = itemPrice;
+        setItemPrice(itemPrice);
         this.quantity = quantity;
         this.status = status != null ? status : STATUS_PENDING; // ใช้ constant
     }
@@ -109,10 +117,15 @@ public class CartItem {
 
     // Calculated field for total price
     public BigDecimal getTotalPrice() {
+        return getLineTotal().toBigDecimal();
+    }
+
+    @JsonIgnore
+    public Money getLineTotal() {
         if (itemPrice != null && quantity != null) {
-            return itemPrice.multiply(BigDecimal.valueOf(quantity));
+            return itemPrice.times(quantity);
         }
-        return BigDecimal.ZERO;
+        return Money.ZERO;
     }
 
     // Getters and Setters
@@ -132,6 +145,14 @@ public class CartItem {
         this.customer = customer;
     }
 
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+
+    public void setMenuItemId(Long menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+
     public String getItemName() {
         return itemName;
     }
@@ -140,11 +161,24 @@ public class CartItem {
         this.itemName = itemName;
     }
 
+    @NotNull(message = "Item price is required")
+    @DecimalMin(value = "0.01", message = "Item price must be greater than 0")
+    @DecimalMax(value = "9999.99", message = "Item price must not exceed 9999.99")
+    @Digits(integer = 4, fraction = 2, message = "Item price must have at most 4 integer digits and 2 decimal places")
     public BigDecimal getItemPrice() {
-        return itemPrice;
+        return itemPrice != null ? itemPrice.toBigDecimal() : null;
     }
 
     public void setItemPrice(BigDecimal itemPrice) {
+        this.itemPrice = itemPrice != null ? Money.ofRounded(itemPrice) : null;
+    }
+
+    @JsonIgnore
+    public Money getItemPriceMoney() {
+        return itemPrice;
+    }
+
+    public void setItemPriceMoney(Money itemPrice) {
         this.itemPrice = itemPrice;
     }
 
@@ -190,6 +224,6 @@ public class CartItem {
     }
 
     public double getPrice() {
-        return this.itemPrice != null ? this.itemPrice.doubleValue() : 0.0;
+        return this.itemPrice != null ? this.itemPrice.toDouble() : 0.0;
     }
 }
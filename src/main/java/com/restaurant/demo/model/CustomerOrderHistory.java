@@ -0,0 +1,62 @@
+package com.restaurant.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized read model of a customer's order history.
+ * One row per customer holding every order (with its items) as a compact JSON document,
+ * so the history page is served by a single primary-key lookup instead of
+ * loading and mapping every Order entity.
+ */
+@Entity
+@Table(name = "customer_order_history")
+public class CustomerOrderHistory {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Lob
+    @Column(name = "document", nullable = false)
+    private String document;
+
+    @Column(name = "order_count", nullable = false)
+    private int orderCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    public CustomerOrderHistory() {}
+
+    public CustomerOrderHistory(Long customerId) {
+        this.customerId = customerId;
+        this.document = "[]";
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // ===== Getter / Setter =====
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getDocument() { return document; }
+    public void setDocument(String document) { this.document = document; }
+
+    public int getOrderCount() { return orderCount; }
+    public void setOrderCount(int orderCount) { this.orderCount = orderCount; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public long getVersion() { return version; }
+}
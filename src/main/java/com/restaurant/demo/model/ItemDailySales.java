@@ -0,0 +1,39 @@
+package com.restaurant.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Quantity of one menu item sold on one day, counting finished orders by the day they were placed
+ * (the same day the monthly report puts them in). Maintained by BestSellerService as orders finish.
+ */
+@Entity
+@Table(name = "item_daily_sales", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_item_daily_sales_day_item", columnNames = {"sale_date", "item_name"})
+})
+public class ItemDailySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Column(name = "item_name", nullable = false, length = 100)
+    private String itemName;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    protected ItemDailySales() {}
+
+    // ===== Getter =====
+    public Long getId() { return id; }
+
+    public LocalDate getSaleDate() { return saleDate; }
+
+    public String getItemName() { return itemName; }
+
+    public long getQuantity() { return quantity; }
+}
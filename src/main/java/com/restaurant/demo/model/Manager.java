@@ -67,10 +67,13 @@ public class Manager extends Employee {
                 .collect(Collectors.groupingBy(CartItem::getCustomerId));
 
         int orderCount = todayCartByCustomer.size();
-        double revenue = todayCartByCustomer.values().stream()
-                .flatMap(List::stream)
-                .mapToDouble(item -> item.getPrice() * item.getQuantity())
-                .sum();
+        Money.Sum revenueSum = new Money.Sum();
+        for (List<CartItem> cart : todayCartByCustomer.values()) {
+            for (CartItem item : cart) {
+                revenueSum.add(item.getLineTotal());
+            }
+        }
+        double revenue = revenueSum.toMoney().toDouble();
 
         int newCustomers = 0;
         for (User user : users) {
@@ -108,9 +111,12 @@ public class Manager extends Employee {
                 .count();
         
         // Calculate revenue from COMPLETED orders only
-        double revenue = completedOrders.stream()
-                .mapToDouble(order -> order.getTotalAmount() != null ? order.getTotalAmount().doubleValue() : 0.0)
-                .sum();
+        // Summed exactly in satang; converted to double only for the report
+        Money.Sum revenueSum = new Money.Sum();
+        for (Order order : completedOrders) {
+            revenueSum.add(order.getTotalAmountMoney());
+        }
+        double revenue = revenueSum.toMoney().toDouble();
         
         // Count new customers who registered today
         int newCustomers = 0;
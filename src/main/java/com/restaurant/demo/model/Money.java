@@ -0,0 +1,110 @@
+package com.restaurant.demo.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of baht held as whole satang (1/100 baht) in a long.
+ *
+ * Arithmetic is exact integer math and throws ArithmeticException on overflow instead of
+ * wrapping. Summing order lines therefore needs no BigDecimal per line and never drifts the
+ * way double sums do. BigDecimal is only used at the edges (database columns via
+ * MoneyConverter, DTOs and JSON). Use Sum for totals over many lines: a loop-carried
+ * Money cannot be scalar-replaced by the JIT, a Sum can.
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofMinor(long minorUnits) {
+        return new Money(minorUnits);
+    }
+
+    /**
+     * @throws ArithmeticException if the amount has more than two decimals or does not fit a long
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Convert an amount from the BigDecimal setters (JSON input, legacy callers), rounding
+     * anything past two decimals half-up as the DECIMAL(…, 2) columns always did
+     *
+     * @throws ArithmeticException if the amount does not fit a long
+     */
+    public static Money ofRounded(BigDecimal amount) {
+        return of(amount.setScale(SCALE, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Convert a price held as a double (MenuItem.price). Prices are validated to two
+     * decimals, so rounding the scaled value recovers the intended satang exactly.
+     */
+    public static Money of(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new ArithmeticException("Not a monetary amount: " + amount);
+        }
+        return ofMinor(Math.round(amount * 100));
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(int quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public double toDouble() {
+        return minorUnits / 100.0;
+    }
+
+    /**
+     * Running total in satang
+     */
+    public static final class Sum {
+        private long minorUnits;
+
+        public Sum add(Money amount) {
+            minorUnits = Math.addExact(minorUnits, amount.minorUnits);
+            return this;
+        }
+
+        /**
+         * Add price x quantity
+         */
+        public Sum addLine(Money price, int quantity) {
+            minorUnits = Math.addExact(minorUnits, Math.multiplyExact(price.minorUnits, quantity));
+            return this;
+        }
+
+        public Money toMoney() {
+            return new Money(minorUnits);
+        }
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
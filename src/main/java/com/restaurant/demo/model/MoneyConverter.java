@@ -0,0 +1,24 @@
+package com.restaurant.demo.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Stores Money attributes in the existing DECIMAL(…, 2) columns.
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal amount) {
+        // Columns are scale 2; HALF_UP only matters for hand-edited rows with more decimals
+        return amount != null ? Money.ofRounded(amount) : null;
+    }
+}
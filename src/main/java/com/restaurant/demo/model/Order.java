@@ -7,7 +7,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Date range reads (export, daily report) and the archive job (OrderArchive) select by age
+        @Index(name = "idx_orders_created_at", columnList = "created_at")
+})
 public class Order {
 
     @Id
@@ -30,12 +33,12 @@ public class Order {
     private String status = "Pending";
 
     @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
-    private BigDecimal totalAmount = BigDecimal.ZERO;
+    private Money totalAmount = Money.ZERO;
 
-    @Column(nullable = false, updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
-    @Column(nullable = false)
+    @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
     public Order() {
@@ -65,9 +68,11 @@ public class Order {
     }
 
     public void calculateTotalAmount() {
-        this.totalAmount = orderItems.stream()
-            .map(OrderItem::getTotal)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Money.Sum sum = new Money.Sum();
+        for (OrderItem item : orderItems) {
+            sum.add(item.getTotalMoney());
+        }
+        this.totalAmount = sum.toMoney();
     }
 
 
@@ -89,15 +94,18 @@ public class Order {
     public void setStatus(String status) { this.status = status; }
 
     public BigDecimal getTotalAmount() { 
-        return totalAmount; 
+        return totalAmount.toBigDecimal(); 
     }
     public void setTotalAmount(BigDecimal totalAmount) { 
-        this.totalAmount = totalAmount; 
+        this.totalAmount = totalAmount != null ? Money.ofRounded(totalAmount) : Money.ZERO; 
     }
 
+    public Money getTotalAmountMoney() { return totalAmount; }
+    public void setTotalAmountMoney(Money totalAmount) { this.totalAmount = totalAmount; }
+
     // Alias for getTotalAmount() for consistency
     public BigDecimal getTotalPrice() { 
-        return this.totalAmount; 
+        return getTotalAmount(); 
     }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
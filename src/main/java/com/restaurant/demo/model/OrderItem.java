@@ -20,13 +20,13 @@ public class OrderItem {
     private String itemName;
 
     @Column(name = "item_price", nullable = false, precision = 10, scale = 2)
-    private BigDecimal itemPrice;
+    private Money itemPrice;
 
     @Column(nullable = false)
     private Integer quantity = 1;
 
     @Column(name = "total", nullable = false, precision = 10, scale = 2)
-    private BigDecimal total = BigDecimal.ZERO;
+    private Money total = Money.ZERO;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -39,7 +39,7 @@ public class OrderItem {
 
     public OrderItem(String itemName, BigDecimal itemPrice, Integer quantity) {
         this.itemName = itemName;
-        this.itemPrice = itemPrice;
+        this.itemPrice = itemPrice != null ? Money.ofRounded(itemPrice) : null;
         this.quantity = quantity != null ? quantity : 1;
         calculateTotal();
     }
@@ -61,9 +61,9 @@ public class OrderItem {
     // ===== Helper =====
     private void calculateTotal() {
         if (itemPrice != null && quantity != null) {
-            this.total = itemPrice.multiply(BigDecimal.valueOf(quantity));
+            this.total = itemPrice.times(quantity);
         } else {
-            this.total = BigDecimal.ZERO;
+            this.total = Money.ZERO;
         }
     }
 
@@ -76,9 +76,14 @@ public class OrderItem {
     public String getItemName() { return itemName; }
     public void setItemName(String itemName) { this.itemName = itemName; }
 
-    public BigDecimal getItemPrice() { return itemPrice; }
+    public BigDecimal getItemPrice() { return itemPrice != null ? itemPrice.toBigDecimal() : null; }
     public void setItemPrice(BigDecimal itemPrice) { 
-        this.itemPrice = itemPrice; 
+        setItemPriceMoney(itemPrice != null ? Money.ofRounded(itemPrice) : null);
+    }
+
+    public Money getItemPriceMoney() { return itemPrice; }
+    public void setItemPriceMoney(Money itemPrice) {
+        this.itemPrice = itemPrice;
         calculateTotal();
     }
 
@@ -88,8 +93,10 @@ public class OrderItem {
         calculateTotal();
     }
 
-    public BigDecimal getTotal() { return total; }
-    public void setTotal(BigDecimal total) { this.total = total; }
+    public BigDecimal getTotal() { return total.toBigDecimal(); }
+    public void setTotal(BigDecimal total) { this.total = total != null ? Money.ofRounded(total) : Money.ZERO; }
+
+    public Money getTotalMoney() { return total; }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
@@ -0,0 +1,65 @@
+package com.restaurant.demo.model;
+
+import jakarta.persistence.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * One status transition of an order, with how long the order had been in the status it left.
+ * order_id is not a foreign key: history stays when the order moves to orders_archive.
+ */
+@Entity
+@Table(name = "order_status_history", indexes = {
+        @Index(name = "idx_order_status_history_order", columnList = "order_id"),
+        @Index(name = "idx_order_status_history_changed_at", columnList = "changed_at")
+})
+public class OrderStatusChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "from_status", nullable = false, length = 20)
+    private String fromStatus;
+
+    @Column(name = "to_status", nullable = false, length = 20)
+    private String toStatus;
+
+    // When the order entered from_status
+    @Column(name = "entered_at", nullable = false)
+    private LocalDateTime enteredAt;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    protected OrderStatusChange() {}
+
+    public OrderStatusChange(Long orderId, String fromStatus, String toStatus, LocalDateTime enteredAt, LocalDateTime changedAt) {
+        this.orderId = orderId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.enteredAt = enteredAt;
+        this.changedAt = changedAt;
+    }
+
+    // ===== Getter =====
+    public Long getId() { return id; }
+
+    public Long getOrderId() { return orderId; }
+
+    public String getFromStatus() { return fromStatus; }
+
+    public String getToStatus() { return toStatus; }
+
+    public LocalDateTime getEnteredAt() { return enteredAt; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+
+    /**
+     * @return Time spent in from_status
+     */
+    public Duration getTimeInStatus() { return Duration.between(enteredAt, changedAt); }
+}
@@ -0,0 +1,71 @@
+package com.restaurant.demo.model;
+
+import com.restaurant.demo.dto.ReportSummary;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Report totals of a month (or, with month 0, a year) that is over, kept so it is not
+ * recomputed after a restart. Written and evicted by CachingReportService.
+ */
+@Entity
+@Table(name = "report_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_report_snapshots_period", columnNames = {"report_year", "report_month"})
+})
+public class ReportSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "report_year", nullable = false)
+    private int reportYear;
+
+    // 0 for the whole year
+    @Column(name = "report_month", nullable = false)
+    private int reportMonth;
+
+    @Column(name = "total_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalRevenue;
+
+    @Column(name = "total_orders", nullable = false)
+    private long totalOrders;
+
+    @Column(name = "top_menu", nullable = false, length = 100)
+    private String topMenu;
+
+    @Column(name = "top_count", nullable = false)
+    private long topCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    protected ReportSnapshot() {}
+
+    public ReportSnapshot(int reportYear, int reportMonth, ReportSummary summary) {
+        this.reportYear = reportYear;
+        this.reportMonth = reportMonth;
+        this.totalRevenue = summary.getTotalRevenue();
+        this.totalOrders = summary.getTotalOrders();
+        this.topMenu = summary.getTopMenu();
+        this.topCount = summary.getTopCount();
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * @return The stored totals, without the monthly sales chart (not part of the snapshot)
+     */
+    public ReportSummary toSummary() {
+        return new ReportSummary(totalRevenue, totalOrders, topMenu, topCount, null);
+    }
+
+    // ===== Getter =====
+    public Long getId() { return id; }
+
+    public int getReportYear() { return reportYear; }
+
+    public int getReportMonth() { return reportMonth; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
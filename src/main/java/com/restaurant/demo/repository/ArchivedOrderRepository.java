@@ -0,0 +1,38 @@
+package com.restaurant.demo.repository;
+
+import com.restaurant.demo.model.ArchivedOrder;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    /**
+     * Find an archived order with its customer and items
+     * @param id The order ID
+     * @return The archived order, if it has been archived
+     */
+    @EntityGraph(attributePaths = {"customer", "orderItems"})
+    Optional<ArchivedOrder> findWithItemsById(Long id);
+
+    /**
+     * Find all archived orders for a specific customer, oldest first
+     * @param customerId The customer ID
+     * @return Archived orders with their items
+     */
+    @EntityGraph(attributePaths = {"customer", "orderItems"})
+    List<ArchivedOrder> findByCustomer_IdOrderById(Long customerId);
+
+    /**
+     * Creation time of the newest archived order
+     * @return The newest created_at in the archive, or null if the archive is empty
+     */
+    @Query("SELECT MAX(o.createdAt) FROM ArchivedOrder o")
+    LocalDateTime findNewestCreatedAt();
+}
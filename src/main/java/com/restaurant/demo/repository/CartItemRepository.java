@@ -2,11 +2,17 @@ package com.restaurant.demo.repository;
 
 import com.restaurant.demo.model.CartItem;
 import com.restaurant.demo.model.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +27,41 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
 
     Optional<CartItem> findByCustomer_IdAndItemName(Long customerId, String itemName);
 
+    // Customer fetched with the line, so callers outside a transaction can still read it
+    @EntityGraph(attributePaths = "customer")
+    Optional<CartItem> findByCustomer_IdAndMenuItemIdAndStatus(Long customerId, Long menuItemId, String status);
+
+    /**
+     * Add quantity to the customer's Pending line for a menu item, creating the line if needed.
+     * One atomic statement against uk_cart_items_customer_menu_item_status, so concurrent
+     * taps cannot create duplicate lines. Quantity is capped at 99.
+     * Runs on MySQL and on H2 in MODE=MySQL. A line already loaded in the persistence
+     * context is not updated by this statement; refresh it (JpaCartStore.addPending does).
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO cart_items (customer_id, menu_item_id, item_name, item_price, quantity, status, created_at, updated_at)
+            VALUES (:customerId, :menuItemId, :itemName, :itemPrice, :quantity, 'Pending', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            ON DUPLICATE KEY UPDATE quantity = LEAST(quantity + :quantity, 99), updated_at = CURRENT_TIMESTAMP
+            """, nativeQuery = true)
+    int upsertPending(@Param("customerId") Long customerId,
+                      @Param("menuItemId") Long menuItemId,
+                      @Param("itemName") String itemName,
+                      @Param("itemPrice") BigDecimal itemPrice,
+                      @Param("quantity") int quantity);
+
+    @Query("SELECT c.id FROM CartItem c WHERE c.status = :status AND c.updatedAt < :cutoff")
+    List<Long> findIdsByStatusUpdatedBefore(@Param("status") String status,
+                                            @Param("cutoff") LocalDateTime cutoff,
+                                            Pageable page);
+
+    // The age check is repeated so a line touched since it was selected survives
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.id IN :ids AND c.updatedAt < :cutoff")
+    int deleteByIdsUpdatedBefore(@Param("ids") List<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
     @Query("SELECT c FROM CartItem c WHERE LOWER(c.status) = LOWER(:status)")
     List<CartItem> findByStatusIgnoreCase(@Param("status") String status);
 }
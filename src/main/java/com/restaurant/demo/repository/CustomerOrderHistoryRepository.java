@@ -0,0 +1,9 @@
+package com.restaurant.demo.repository;
+
+import com.restaurant.demo.model.CustomerOrderHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerOrderHistoryRepository extends JpaRepository<CustomerOrderHistory, Long> {
+}
@@ -0,0 +1,44 @@
+package com.restaurant.demo.repository;
+
+import com.restaurant.demo.dto.ItemSales;
+import com.restaurant.demo.model.ItemDailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ItemDailySalesRepository extends JpaRepository<ItemDailySales, Long> {
+
+    /**
+     * Add to (or, with a negative quantity, take from) an item's count for a day, creating the row if needed.
+     * One statement against uk_item_daily_sales_day_item; runs on MySQL and on H2 in MODE=MySQL.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO item_daily_sales (sale_date, item_name, quantity)
+            VALUES (:saleDate, :itemName, :quantity)
+            ON DUPLICATE KEY UPDATE quantity = quantity + :quantity
+            """, nativeQuery = true)
+    int addQuantity(@Param("saleDate") LocalDate saleDate,
+                    @Param("itemName") String itemName,
+                    @Param("quantity") long quantity);
+
+    /**
+     * Quantity per item over a range of days (one row per item and day, so this stays small
+     * however many order items the range holds)
+     */
+    @Query("""
+            SELECT new com.restaurant.demo.dto.ItemSales(s.itemName, SUM(s.quantity))
+            FROM ItemDailySales s
+            WHERE s.saleDate BETWEEN :from AND :to
+            GROUP BY s.itemName
+            """)
+    List<ItemSales> sumByItem(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    List<ItemDailySales> findBySaleDate(LocalDate saleDate);
+}
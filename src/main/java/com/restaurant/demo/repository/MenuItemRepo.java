@@ -1,9 +1,17 @@
 package com.restaurant.demo.repository;
 
 import com.restaurant.demo.model.MenuItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
 
 public interface MenuItemRepo extends JpaRepository<MenuItem, Long> {
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "menu-items.active")
+    })
     List<MenuItem> findByActiveTrue();
 }
\ No newline at end of file
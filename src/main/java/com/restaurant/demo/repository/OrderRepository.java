@@ -2,16 +2,29 @@ package com.restaurant.demo.repository;
 
 import com.restaurant.demo.model.Order;
 import com.restaurant.demo.model.Customer;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Find an order and lock its row until the transaction ends (SELECT ... FOR UPDATE),
+     * so concurrent status transitions of the same order run one after the other
+     * @param id The order ID
+     * @return The locked order, if it exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
     
     /**
      * Find all orders for a specific customer
@@ -70,4 +83,11 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @return Count of orders with the specified status
      */
     long countByStatus(String status);
+
+    /**
+     * Count orders of every status in one query
+     * @return Rows of [status, count], one per status present
+     */
+    @Query("SELECT o.status, COUNT(o) FROM Order o GROUP BY o.status")
+    List<Object[]> countGroupByStatus();
 }
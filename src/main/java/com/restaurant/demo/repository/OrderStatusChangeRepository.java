@@ -0,0 +1,26 @@
+package com.restaurant.demo.repository;
+
+import com.restaurant.demo.model.OrderStatusChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderStatusChangeRepository extends JpaRepository<OrderStatusChange, Long> {
+
+    /**
+     * Find the transitions of one order, oldest first
+     * @param orderId The order ID
+     * @return The order's status history
+     */
+    List<OrderStatusChange> findByOrderIdOrderByChangedAt(Long orderId);
+
+    /**
+     * Find transitions since a point in time (index range on changed_at)
+     * @param since Inclusive lower bound
+     * @return Transitions at or after since
+     */
+    List<OrderStatusChange> findByChangedAtGreaterThanEqual(LocalDateTime since);
+}
@@ -0,0 +1,21 @@
+package com.restaurant.demo.repository;
+
+import com.restaurant.demo.model.ReportSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface ReportSnapshotRepository extends JpaRepository<ReportSnapshot, Long> {
+
+    Optional<ReportSnapshot> findByReportYearAndReportMonth(int reportYear, int reportMonth);
+
+    @Modifying
+    @Query("DELETE FROM ReportSnapshot s WHERE s.reportYear = :year AND s.reportMonth IN :months")
+    int deletePeriods(@Param("year") int year, @Param("months") Collection<Integer> months);
+}
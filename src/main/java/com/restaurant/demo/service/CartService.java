@@ -4,23 +4,30 @@ import com.restaurant.demo.dto.CartItemDto;
 import com.restaurant.demo.model.CartItem;
 import com.restaurant.demo.model.Customer;
 import com.restaurant.demo.model.MenuItem;
-import com.restaurant.demo.repository.CartItemRepository;
+import com.restaurant.demo.model.Money;
 import com.restaurant.demo.repository.CustomerRepository;
 import com.restaurant.demo.repository.MenuItemRepo;
+import com.restaurant.demo.service.cart.CartStore;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class CartService {
 
     @Autowired
-    private CartItemRepository cartItemRepository;
+    private CartStore cartStore;
 
     @Autowired
     private CustomerRepository customerRepository;
@@ -37,13 +44,16 @@ public class CartService {
                 .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + customerId));
     }
 
+    @Timed("restaurant.cart.add")
     public CartItem addToCart(Long customerId, Long menuItemId, Integer quantity) {
+        if (quantity == null || quantity < 1 || quantity > 99) {
+            throw new RuntimeException("Quantity must be between 1 and 99");
+        }
         Customer customer = getCustomerById(customerId);
         MenuItem menuItem = menuItemRepository.findById(menuItemId)
                 .orElseThrow(() -> new RuntimeException("Menu item not found with ID: " + menuItemId));
 
-        BigDecimal itemPrice = BigDecimal.valueOf(menuItem.getPrice());
-        return addToCart(customer, menuItem.getName(), itemPrice, quantity);
+        return cartStore.addPending(customer, menuItemId, menuItem.getName(), menuItem.getPriceMoney(), quantity);
     }
 
     public CartItem updateCartItemQuantity(Long cartItemId, Long customerId, Integer quantity) {
@@ -60,7 +70,7 @@ public class CartService {
         if (customer == null) {
             throw new RuntimeException("Customer authentication required");
         }
-        return cartItemRepository.findByCustomer(customer);
+        return cartStore.findByCustomer(customer);
     }
 
     public CartItem getCartItem(Long cartItemId, Long customerId) {
@@ -75,24 +85,25 @@ public class CartService {
 
     public BigDecimal calculateCartTotal(Long customerId) {
         Customer customer = getCustomerById(customerId);
-        List<CartItem> items = getCartByCustomer(customer);
-        return items.stream()
-                .map(item -> item.getItemPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Money.Sum total = new Money.Sum();
+        for (CartItem item : getCartByCustomer(customer)) {
+            total.add(item.getLineTotal());
+        }
+        return total.toMoney().toBigDecimal();
     }
 
     public List<CartItem> getAllCartItems() {
-        return cartItemRepository.findAll();
+        return cartStore.findAll();
     }
 
     public List<CartItem> getCartItems(Long customerId) {
         Customer customer = getCustomerById(customerId);
-        return cartItemRepository.findByCustomer(customer);
+        return cartStore.findByCustomer(customer);
     }
 
     public List<CartItem> getCartByCustomerId(Long customerId) {
         Customer customer = getCustomerById(customerId);
-        return cartItemRepository.findByCustomer(customer);
+        return cartStore.findByCustomer(customer);
     }
 
     public CartItem addToCart(Customer customer, String name, BigDecimal price, int quantity) {
@@ -103,16 +114,16 @@ public class CartService {
             throw new RuntimeException("Quantity must be between 1 and 99");
         }
 
-        Optional<CartItem> existingItem = cartItemRepository.findByCustomer_IdAndItemName(customer.getId(), name);
+        Optional<CartItem> existingItem = cartStore.findByCustomerAndItemName(customer, name);
 
         if (existingItem.isPresent()) {
             CartItem item = existingItem.get();
             int newQuantity = Math.min(item.getQuantity() + quantity, 99);
             item.setQuantity(newQuantity);
-            return cartItemRepository.save(item);
+            return cartStore.save(item);
         } else {
             CartItem newItem = new CartItem(customer, name, price, quantity);
-            return cartItemRepository.save(newItem);
+            return cartStore.save(newItem);
         }
     }
 
@@ -121,35 +132,35 @@ public class CartService {
         int newQuantity = item.getQuantity() + 1;
         if (newQuantity > 99) throw new RuntimeException("Quantity cannot exceed 99");
         item.setQuantity(newQuantity);
-        return cartItemRepository.save(item);
+        return cartStore.save(item);
     }
 
     public CartItem decrementQuantity(Long itemId, Customer customer) {
         CartItem item = getCartItem(itemId, customer).orElseThrow(() -> new RuntimeException("Cart item not found"));
         if (item.getQuantity() <= 1) throw new RuntimeException("Quantity cannot be less than 1");
         item.setQuantity(item.getQuantity() - 1);
-        return cartItemRepository.save(item);
+        return cartStore.save(item);
     }
 
     public CartItem updateQuantity(Long itemId, int quantity, Customer customer) {
         if (quantity < 1 || quantity > 99) throw new RuntimeException("Quantity must be between 1 and 99");
         CartItem item = getCartItem(itemId, customer).orElseThrow(() -> new RuntimeException("Cart item not found"));
         item.setQuantity(quantity);
-        return cartItemRepository.save(item);
+        return cartStore.save(item);
     }
 
     public void removeFromCart(Long itemId, Customer customer) {
         CartItem item = getCartItem(itemId, customer).orElseThrow(() -> new RuntimeException("Cart item not found"));
-        cartItemRepository.delete(item);
+        cartStore.delete(item);
     }
 
     public void clearCart(Customer customer) {
-        List<CartItem> items = cartItemRepository.findByCustomer(customer);
-        cartItemRepository.deleteAll(items);
+        List<CartItem> items = cartStore.findByCustomer(customer);
+        cartStore.deleteAll(items);
     }
 
     public Optional<CartItem> getCartItem(Long itemId, Customer customer) {
-        Optional<CartItem> optionalItem = cartItemRepository.findById(itemId);
+        Optional<CartItem> optionalItem = cartStore.findById(itemId);
         optionalItem.ifPresent(item -> {
             if (!item.getCustomer().getId().equals(customer.getId())) {
                 throw new RuntimeException("Access denied: Item does not belong to customer");
@@ -160,7 +171,7 @@ public class CartService {
 
     public CartItem updateCartItem(CartItem cartItem, Customer customer) {
         if (cartItem.getId() != null) {
-            Optional<CartItem> existingItem = cartItemRepository.findById(cartItem.getId());
+            Optional<CartItem> existingItem = cartStore.findById(cartItem.getId());
             existingItem.ifPresent(item -> {
                 if (!item.getCustomer().getId().equals(customer.getId())) {
                     throw new RuntimeException("Access denied: Item does not belong to customer");
@@ -168,7 +179,7 @@ public class CartService {
             });
         }
         cartItem.setCustomer(customer);
-        return cartItemRepository.save(cartItem);
+        return cartStore.save(cartItem);
     }
 
     public CartItemDto toDto(CartItem item) {
@@ -178,7 +189,7 @@ public class CartService {
                 item.getItemName(),
                 item.getItemPrice(),
                 item.getQuantity(),
-                item.getItemPrice().multiply(BigDecimal.valueOf(item.getQuantity())),
+                item.getTotalPrice(),
                 item.getStatus(),
                 item.getCreatedAt(),
                 item.getUpdatedAt()
@@ -193,17 +204,42 @@ public class CartService {
     @Transactional
     public void finishCart(Long customerId) {
         Customer customer = getCustomerById(customerId);
-        List<CartItem> items = cartItemRepository.findByCustomerAndStatus(customer, CartItem.STATUS_PENDING);
+        List<CartItem> items = cartStore.findByCustomerAndStatus(customer, CartItem.STATUS_PENDING);
         if (items.isEmpty()) throw new RuntimeException("Cart is empty. Cannot place order.");
-        items.forEach(item -> item.setStatus(CartItem.STATUS_FINISH));
-        cartItemRepository.saveAll(items);
+        moveLines(customer, items, CartItem.STATUS_FINISH);
     }
 
     @Transactional
     public void resetCart(Long customerId) {
         Customer customer = getCustomerById(customerId);
-        List<CartItem> items = cartItemRepository.findByCustomerAndStatus(customer, CartItem.STATUS_FINISH);
-        items.forEach(item -> item.setStatus(CartItem.STATUS_PENDING));
-        cartItemRepository.saveAll(items);
+        List<CartItem> items = cartStore.findByCustomerAndStatus(customer, CartItem.STATUS_FINISH);
+        moveLines(customer, items, CartItem.STATUS_PENDING);
+    }
+
+    // A line whose menu item already has a line in the target status is merged into it (capped
+    // at 99) and deleted, so uk_cart_items_customer_menu_item_status never sees two of them
+    private void moveLines(Customer customer, List<CartItem> items, String status) {
+        Map<Long, CartItem> targets = new HashMap<>();
+        for (CartItem line : cartStore.findByCustomerAndStatus(customer, status)) {
+            if (line.getMenuItemId() != null) {
+                targets.put(line.getMenuItemId(), line);
+            }
+        }
+
+        Set<CartItem> changed = new LinkedHashSet<>();
+        List<CartItem> merged = new ArrayList<>();
+        for (CartItem item : items) {
+            CartItem target = item.getMenuItemId() != null ? targets.get(item.getMenuItemId()) : null;
+            if (target != null) {
+                target.setQuantity(Math.min(target.getQuantity() + item.getQuantity(), 99));
+                changed.add(target);
+                merged.add(item);
+            } else {
+                item.setStatus(status);
+                changed.add(item);
+            }
+        }
+        cartStore.deleteAll(merged);
+        cartStore.saveAll(new ArrayList<>(changed));
     }
 }
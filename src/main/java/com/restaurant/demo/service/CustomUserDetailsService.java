@@ -1,5 +1,6 @@
 package com.restaurant.demo.service;
 
+import com.restaurant.demo.config.replica.ReplicaContext;
 import com.restaurant.demo.model.Customer;
 import com.restaurant.demo.repository.CustomerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,7 +20,8 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Customer customer = customerRepository.findByUsername(username)
+        // Always the primary: a replica may not have a just-registered account or a changed password yet
+        Customer customer = ReplicaContext.onPrimary(() -> customerRepository.findByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
         return User.builder()
@@ -8,7 +8,10 @@ import com.restaurant.demo.exception.CustomerNotFoundException;
 import com.restaurant.demo.exception.InvalidCredentialsException;
 import com.restaurant.demo.model.Customer;
 import com.restaurant.demo.repository.CustomerRepository;
+import com.restaurant.demo.service.customer.CustomerAvailability;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,17 +29,20 @@ public class CustomerService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CustomerAvailability customerAvailability;
+
     /**
      * Register a new customer with validation
      */
     public AuthResponseDto registerCustomer(CustomerRegistrationDto registrationDto) {
         // Check if username already exists
-        if (customerRepository.existsByUsername(registrationDto.getUsername())) {
+        if (customerAvailability.isUsernameTaken(registrationDto.getUsername())) {
             throw CustomerAlreadyExistsException.withUsername(registrationDto.getUsername());
         }
 
         // Check if email already exists
-        if (customerRepository.existsByEmail(registrationDto.getEmail())) {
+        if (customerAvailability.isEmailTaken(registrationDto.getEmail())) {
             throw CustomerAlreadyExistsException.withEmail(registrationDto.getEmail());
         }
 
@@ -48,8 +54,15 @@ public class CustomerService {
         customer.setName(registrationDto.getName());
         customer.setPhone(registrationDto.getPhone());
 
-        // Save customer
-        Customer savedCustomer = customerRepository.save(customer);
+        // Save customer; the unique constraints catch a name taken on another instance since the last filter rebuild
+        customerAvailability.added(customer.getUsername(), customer.getEmail());
+        Customer savedCustomer;
+        try {
+            savedCustomer = customerRepository.save(customer);
+        } catch (DataIntegrityViolationException e) {
+            throw new CustomerAlreadyExistsException("Customer already exists with username or email: "
+                    + registrationDto.getUsername() + ", " + registrationDto.getEmail(), e);
+        }
 
         return new AuthResponseDto(
             "registration-token-" + savedCustomer.getId(),
@@ -63,6 +76,7 @@ public class CustomerService {
     /**
      * Authenticate customer login
      */
+    @Timed(value = "restaurant.auth.login", extraTags = {"role", "customer"})
     public AuthResponseDto loginCustomer(CustomerLoginDto loginDto) {
         // Find customer by username or email
         Optional<Customer> customerOpt = findCustomerByUsernameOrEmail(loginDto.getUsernameOrEmail());
@@ -125,14 +139,14 @@ public class CustomerService {
      * Check if username is available
      */
     public boolean isUsernameAvailable(String username) {
-        return !customerRepository.existsByUsername(username);
+        return !customerAvailability.isUsernameTaken(username);
     }
 
     /**
      * Check if email is available
      */
     public boolean isEmailAvailable(String email) {
-        return !customerRepository.existsByEmail(email);
+        return !customerAvailability.isEmailTaken(email);
     }
 
     /**
@@ -160,6 +174,7 @@ public class CustomerService {
         }
 
         // Update customer fields
+        customerAvailability.added(updateDto.getUsername(), updateDto.getEmail());
         customer.setUsername(updateDto.getUsername());
         customer.setEmail(updateDto.getEmail());
         customer.setName(updateDto.getName());
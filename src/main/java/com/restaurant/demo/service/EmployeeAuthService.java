@@ -3,6 +3,7 @@ package com.restaurant.demo.service;
 import com.restaurant.demo.dto.EmployeeLoginDto;
 import com.restaurant.demo.model.Employee;
 import com.restaurant.demo.repository.EmployeeRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +29,7 @@ public class EmployeeAuthService {
      * @return Optional<Employee> containing the employee if authentication successful
      * @throws RuntimeException if authentication fails
      */
+    @Timed(value = "restaurant.auth.login", extraTags = {"role", "employee"})
     public Optional<Employee> authenticateEmployee(EmployeeLoginDto loginDto) {
         String username = loginDto.getUsername();
         String password = loginDto.getPassword();
@@ -8,6 +8,7 @@ import com.restaurant.demo.model.Employee;
 import com.restaurant.demo.model.Manager;
 import com.restaurant.demo.repository.EmployeeRepository;
 import com.restaurant.demo.repository.ManagerRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -83,6 +84,7 @@ public class ManagerService {
      * @return Optional<Manager> containing the manager if authentication successful
      * @throws InvalidManagerCredentialsException if credentials are invalid
      */
+    @Timed(value = "restaurant.auth.login", extraTags = {"role", "manager"})
     public Optional<Manager> authenticateManager(String email, String password) {
         // Find manager by email
         Optional<Manager> managerOpt = managerRepository.findByEmail(email);
@@ -5,31 +5,44 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.restaurant.demo.config.singleflight.SingleFlight;
 import com.restaurant.demo.dto.MenuItemRequest;
 import com.restaurant.demo.dto.MenuItemResponse;
 import com.restaurant.demo.exception.MenuItemNotFoundException;
 import com.restaurant.demo.model.MenuItem;
 import com.restaurant.demo.repository.MenuItemRepo;
+import com.restaurant.demo.service.menu.MenuCatalog;
 
 @Service
+@Transactional
 public class MenuItemService {
     @Autowired
     private MenuItemRepo menuItemRepo;
 
+    @Autowired
+    private MenuCatalog menuCatalog;
+
     // ค้นหารายการเมนูที่เปิดใช้งาน
+    // Every customer's device loads this when a rush starts; one query serves them all
+    @SingleFlight(name = "menu.active", ttlMillis = 500)
+    @Transactional(readOnly = true)
     public List<MenuItem> getActiveMenuItems() {
         return menuItemRepo.findByActiveTrue();
     }
 
     // เพิ่มเมนูใหม่
     public MenuItem addMenuItem(MenuItem menuItem) {
-        return menuItemRepo.save(menuItem);
+        MenuItem saved = menuItemRepo.save(menuItem);
+        menuCatalog.refreshAfterCommit();
+        return saved;
     }
 
     // ลบเมนูตาม ID
     public void deleteMenuItem(Long id) {
         menuItemRepo.deleteById(id);
+        menuCatalog.refreshAfterCommit();
     }
 
     // Task 2.1: Create menu item from request DTO with validation
@@ -40,6 +53,7 @@ public class MenuItemService {
         
         MenuItem menuItem = mapRequestToEntity(request);
         MenuItem savedItem = menuItemRepo.save(menuItem);
+        menuCatalog.refreshAfterCommit();
         
         return MenuItemResponse.fromEntity(savedItem);
     }
@@ -61,16 +75,19 @@ public class MenuItemService {
         existingItem.setActive(request.getActive());
         
         MenuItem updatedItem = menuItemRepo.save(existingItem);
+        menuCatalog.refreshAfterCommit();
         
         return MenuItemResponse.fromEntity(updatedItem);
     }
 
     // Task 2.3: Get menu item by ID
+    @Transactional(readOnly = true)
     public Optional<MenuItem> getMenuItemById(Long id) {
         return menuItemRepo.findById(id);
     }
 
     // Task 2.4: Get all menu items (both active and inactive)
+    @Transactional(readOnly = true)
     public List<MenuItem> getAllMenuItems() {
         return menuItemRepo.findAll();
     }
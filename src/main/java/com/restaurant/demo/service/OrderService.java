@@ -1,21 +1,34 @@
 package com.restaurant.demo.service;
 
 import com.restaurant.demo.dto.OrderResponseDto;
+import com.restaurant.demo.dto.OrderStats;
 import com.restaurant.demo.model.CartItem;
 import com.restaurant.demo.model.Customer;
 import com.restaurant.demo.model.Employee;
+import com.restaurant.demo.model.Money;
 import com.restaurant.demo.model.OrderItem;
 import com.restaurant.demo.model.Order;
 import com.restaurant.demo.model.OrderStatus;
-import com.restaurant.demo.repository.CartItemRepository;
 import com.restaurant.demo.repository.CustomerRepository;
 import com.restaurant.demo.repository.EmployeeRepository;
 import com.restaurant.demo.repository.OrderRepository;
+import com.restaurant.demo.service.cart.CartStore;
+import com.restaurant.demo.service.kitchen.ActiveOrderIndex;
+import com.restaurant.demo.service.order.AfterCommit;
+import com.restaurant.demo.service.order.OrderArchive;
+import com.restaurant.demo.service.order.OrderHistoryProjection;
+import com.restaurant.demo.service.order.OrderCounters;
+import com.restaurant.demo.service.order.OrderMetrics;
+import com.restaurant.demo.service.order.OrderStatusHistory;
+import com.restaurant.demo.service.report.BestSellerService;
+import com.restaurant.demo.service.report.CachingReportService;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,22 +36,47 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderService {
 
-        private final CartItemRepository cartItemRepository;
+        private final CartStore cartStore;
         private final CustomerRepository customerRepository;
         private final OrderRepository orderRepository;
         private final EmployeeRepository employeeRepository;
-
-        public OrderService(CartItemRepository cartItemRepository,
+        private final OrderHistoryProjection orderHistoryProjection;
+        private final OrderArchive orderArchive;
+        private final ActiveOrderIndex activeOrderIndex;
+        private final OrderMetrics orderMetrics;
+        private final OrderCounters orderCounters;
+        private final OrderStatusHistory orderStatusHistory;
+        private final BestSellerService bestSellerService;
+        private final CachingReportService reportCache;
+
+        public OrderService(CartStore cartStore,
                         CustomerRepository customerRepository,
                         OrderRepository orderRepository,
-                        EmployeeRepository employeeRepository) {
-                this.cartItemRepository = cartItemRepository;
+                        EmployeeRepository employeeRepository,
+                        OrderHistoryProjection orderHistoryProjection,
+                        OrderArchive orderArchive,
+                        ActiveOrderIndex activeOrderIndex,
+                        OrderMetrics orderMetrics,
+                        OrderCounters orderCounters,
+                        OrderStatusHistory orderStatusHistory,
+                        BestSellerService bestSellerService,
+                        CachingReportService reportCache) {
+                this.cartStore = cartStore;
                 this.customerRepository = customerRepository;
                 this.orderRepository = orderRepository;
                 this.employeeRepository = employeeRepository;
+                this.orderHistoryProjection = orderHistoryProjection;
+                this.orderArchive = orderArchive;
+                this.activeOrderIndex = activeOrderIndex;
+                this.orderMetrics = orderMetrics;
+                this.orderCounters = orderCounters;
+                this.orderStatusHistory = orderStatusHistory;
+                this.bestSellerService = bestSellerService;
+                this.reportCache = reportCache;
         }
 
         @Transactional
+        @Timed("restaurant.orders.place")
         public OrderResponseDto placeOrder(Long customerId, Long employeeId) {
                 LocalDateTime now = LocalDateTime.now();
 
@@ -53,8 +91,8 @@ public class OrderService {
                                         .orElseThrow(() -> new RuntimeException("Employee not found"));
                 }
 
-                // Get cart items (only those still in cart, not ordered)
-                List<CartItem> cartItems = cartItemRepository.findByCustomerAndStatus(customer, "Pending");
+                // Take the Pending cart items; they go back into the cart if the order rolls back
+                List<CartItem> cartItems = cartStore.checkout(customer);
                 if (cartItems.isEmpty())
                         throw new RuntimeException("Cart is empty");
 
@@ -66,43 +104,39 @@ public class OrderService {
                 order.setCreatedAt(now);
                 order.setUpdatedAt(now);
 
-                BigDecimal totalAmount = BigDecimal.ZERO;
+                Money.Sum totalAmount = new Money.Sum();
 
                 // Convert CartItem → OrderItem
                 for (CartItem ci : cartItems) {
                         OrderItem oi = new OrderItem();
 
                         // Set values with null protection
-                        BigDecimal price = ci.getItemPrice() != null ? ci.getItemPrice() : BigDecimal.ZERO;
+                        Money price = ci.getItemPriceMoney() != null ? ci.getItemPriceMoney() : Money.ZERO;
                         int qty = ci.getQuantity() != null ? ci.getQuantity() : 1;
 
                         oi.setItemName(ci.getItemName());
-                        oi.setItemPrice(price);
+                        oi.setItemPriceMoney(price);
                         oi.setQuantity(qty);
                         oi.setCreatedAt(now);
                         oi.setUpdatedAt(now);
 
-                        // Calculate item total
-                        BigDecimal itemTotal = price.multiply(BigDecimal.valueOf(qty));
-
                         // Link to order
                         oi.setOrder(order);
                         order.getOrderItems().add(oi);
 
                         // Add to total
-                        totalAmount = totalAmount.add(itemTotal);
+                        totalAmount.add(oi.getTotalMoney());
                 }
 
                 // Set total amount
-                order.setTotalAmount(totalAmount);
+                order.setTotalAmountMoney(totalAmount.toMoney());
                 order.setUpdatedAt(now);
 
                 // Save Order and OrderItems (Cascade)
                 order = orderRepository.save(order);
 
-                // 🔥 CRITICAL FIX: Clear cart after successful order placement
-                // Delete cart items to prevent accumulation
-                cartItemRepository.deleteAll(cartItems);
+                orderMetrics.orderPlaced();
+                orderCounters.orderPlaced();
 
                 // Map to DTO for response
                 List<OrderResponseDto.OrderItemDto> dtoItems = order.getOrderItems().stream()
@@ -114,7 +148,7 @@ public class OrderService {
                                                 i.getTotal()))
                                 .toList();
 
-                return new OrderResponseDto(
+                OrderResponseDto response = new OrderResponseDto(
                                 order.getId(),           // orderId
                                 customer.getId(),        // customerId
                                 customer.getName(),      // customerName
@@ -123,25 +157,37 @@ public class OrderService {
                                 order.getStatus(),       // status
                                 order.getCreatedAt(),    // createdAt
                                 order.getUpdatedAt());   // updatedAt
+
+                publishOrderChange(response);
+
+                return response;
         }
 
         /**
          * Get all orders for a specific customer (all statuses)
+         * Served from the customer_order_history projection; the projection is
+         * built from the archived and current orders on first access
          * 
          * @param customerId The ID of the customer
          * @return List of OrderResponseDto containing customer's orders
          * @throws RuntimeException if customer not found
          */
+        @Transactional(readOnly = true)
         public List<OrderResponseDto> getOrdersByCustomerId(Long customerId) {
-                // Validate customer exists
-                customerRepository.findById(customerId)
-                                .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + customerId));
-
-                List<Order> orders = orderRepository.findByCustomer_Id(customerId);
-
-                return orders.stream()
-                                .map(this::mapOrderToDto)
-                                .collect(Collectors.toList());
+                return orderHistoryProjection.find(customerId)
+                                .orElseGet(() -> {
+                                        // Validate customer exists
+                                        customerRepository.findById(customerId)
+                                                        .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + customerId));
+
+                                        return orderHistoryProjection.rebuild(customerId, () -> {
+                                                List<OrderResponseDto> orders = new ArrayList<>(orderArchive.findByCustomer(customerId));
+                                                orderRepository.findByCustomer_Id(customerId).stream()
+                                                                .map(this::mapOrderToDto)
+                                                                .forEach(orders::add);
+                                                return orders;
+                                        });
+                                });
         }
 
         /**
@@ -151,6 +197,7 @@ public class OrderService {
          * @return List of OrderResponseDto containing pending orders
          * @throws RuntimeException if customer not found
          */
+        @Transactional(readOnly = true)
         public List<OrderResponseDto> getPendingOrdersByCustomerId(Long customerId) {
                 Customer customer = customerRepository.findById(customerId)
                                 .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + customerId));
@@ -168,6 +215,7 @@ public class OrderService {
          * @param status The status to filter by (Pending, In Progress, Finish, Cancelled)
          * @return List of OrderResponseDto
          */
+        @Transactional(readOnly = true)
         public List<OrderResponseDto> getAllOrdersByStatus(String status) {
                 if (!OrderStatus.isValid(status)) {
                         throw new IllegalArgumentException("Invalid status: " + status);
@@ -181,17 +229,18 @@ public class OrderService {
         }
 
         /**
-         * Get order by ID
+         * Get order by ID, falling back to the archive for old finished orders
          * 
          * @param orderId The order ID
          * @return OrderResponseDto containing order details
          * @throws RuntimeException if order not found
          */
+        @Transactional(readOnly = true)
         public OrderResponseDto getOrderById(Long orderId) {
-                Order order = orderRepository.findById(orderId)
+                return orderRepository.findById(orderId)
+                                .map(this::mapOrderToDto)
+                                .or(() -> orderArchive.find(orderId))
                                 .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
-
-                return mapOrderToDto(order);
         }
 
         /**
@@ -202,8 +251,11 @@ public class OrderService {
          * @return OrderResponseDto with updated order
          * @throws RuntimeException if order not found or validation fails
          */
+        @Timed("restaurant.orders.status.update")
         public OrderResponseDto updateOrderStatus(Long orderId, String newStatus) {
-                Order order = orderRepository.findById(orderId)
+                // Locked so a second identical transition (double tap, two tablets) waits, then fails
+                // validation, instead of adding the order to item_daily_sales twice
+                Order order = orderRepository.findByIdForUpdate(orderId)
                                 .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
 
                 String currentStatus = order.getStatus();
@@ -214,25 +266,62 @@ public class OrderService {
                                                         newStatus));
                 }
 
+                // Only status changes touch updatedAt after placement, so it is when the current status began
+                LocalDateTime enteredAt = order.getUpdatedAt();
+                LocalDateTime now = LocalDateTime.now();
                 order.setStatus(newStatus);
-                order.setUpdatedAt(LocalDateTime.now());
+                order.setUpdatedAt(now);
                 orderRepository.save(order);
 
-                return mapOrderToDto(order);
+                // This transition holds the row lock and passed validation, so it is the one that won;
+                // its history row and queue/prep sample are written once
+                orderStatusHistory.record(order.getId(), currentStatus, newStatus, enteredAt, now);
+                bestSellerService.statusChanged(order, currentStatus, newStatus);
+                reportCache.statusChanged(order.getCreatedAt(), currentStatus, newStatus);
+                orderMetrics.statusChanged(currentStatus, newStatus);
+                orderCounters.statusChanged(currentStatus, newStatus);
+
+                OrderResponseDto response = mapOrderToDto(order);
+                publishOrderChange(response);
+
+                return response;
         }
 
         /**
          * Get count of orders by status (for notification polling)
+         * Served from the in-memory counters, without a database query
          * 
          * @param status The status to count
          * @return Count of orders with the specified status
          */
+        @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
         public Long getOrderCountByStatus(String status) {
                 if (!OrderStatus.isValid(status)) {
                         throw new IllegalArgumentException("Invalid status: " + status);
                 }
 
-                return orderRepository.countByStatus(status);
+                return orderCounters.count(OrderStatus.fromValue(status));
+        }
+
+        /**
+         * Count orders of every status (for the manager dashboard), from the in-memory counters
+         * 
+         * @return Counts per status; statuses without orders count 0
+         */
+        @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+        public OrderStats getOrderStats() {
+                return orderCounters.stats();
+        }
+
+        /**
+         * Propagate a placed or updated order to the read models once the transaction commits:
+         * the customer's history projection and the kitchen's active order index
+         * 
+         * @param order The order as returned to the client
+         */
+        private void publishOrderChange(OrderResponseDto order) {
+                orderHistoryProjection.recordOrder(order);
+                AfterCommit.run(() -> activeOrderIndex.upsert(order));
         }
 
         /**
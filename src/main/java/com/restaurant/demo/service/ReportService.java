@@ -2,6 +2,13 @@ package com.restaurant.demo.service;
 
 import com.restaurant.demo.dto.ReportSummary;
 
+import java.util.Map;
+
 public interface ReportService {
     ReportSummary getMonthlyReport(Integer month, Integer year);
+
+    /**
+     * Quantity sold per menu item in finished orders of the month (or the whole year if month is null or 0)
+     */
+    Map<String, Long> getItemsSold(Integer month, Integer year);
 }
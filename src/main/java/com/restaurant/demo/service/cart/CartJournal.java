@@ -0,0 +1,162 @@
+package com.restaurant.demo.service.cart;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only redo log for cart changes that are not yet in the database.
+ *
+ * Each change is one JSON line in the current segment (cart-{n}.log). The write-behind
+ * flusher rotates to a new segment before writing a batch and deletes the older segments
+ * once the batch is committed, so on restart only unflushed changes are replayed.
+ * Lines reach the OS on every append; with fsync enabled they are also forced to disk.
+ */
+class CartJournal implements AutoCloseable {
+
+    private static final String PREFIX = "cart-";
+    private static final String SUFFIX = ".log";
+
+    /**
+     * One journal line. A null itemName marks a delete.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Entry(Long id, Long customerId, Long menuItemId, String itemName, BigDecimal itemPrice,
+                 Integer quantity, String status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        boolean isDelete() {
+            return itemName == null;
+        }
+
+        static Entry deleted(Long id, Long customerId) {
+            return new Entry(id, customerId, null, null, null, null, null, null, null);
+        }
+    }
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final boolean fsync;
+
+    private long segment;
+    private FileOutputStream out;
+
+    CartJournal(Path directory, ObjectMapper objectMapper, boolean fsync) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Replay every existing segment in order, then open a fresh one for new changes
+     */
+    synchronized void open(Consumer<Entry> replay) throws IOException {
+        Files.createDirectories(directory);
+        for (Path path : segments()) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        replay.accept(objectMapper.readValue(line, Entry.class));
+                    } catch (IOException e) {
+                        // A torn last line from a crash mid-append; nothing after it was acknowledged
+                        break;
+                    }
+                }
+            }
+            segment = Math.max(segment, segmentNumber(path));
+        }
+        openSegment(segment + 1);
+    }
+
+    synchronized void append(Entry entry) {
+        try {
+            byte[] line = objectMapper.writeValueAsBytes(entry);
+            out.write(line);
+            out.write('\n');
+            if (fsync) {
+                out.getChannel().force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write cart journal", e);
+        }
+    }
+
+    /**
+     * Close the current segment and start a new one
+     *
+     * @return The number of the segment just closed
+     */
+    synchronized long rotate() throws IOException {
+        long closed = segment;
+        out.getChannel().force(false);
+        out.close();
+        openSegment(segment + 1);
+        return closed;
+    }
+
+    /**
+     * Delete every segment up to and including the given one; their changes are in the database
+     */
+    synchronized void discardThrough(long lastSegment) throws IOException {
+        for (Path path : segments()) {
+            if (segmentNumber(path) <= lastSegment) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Delete every segment before the current one
+     */
+    synchronized void discardClosed() throws IOException {
+        discardThrough(segment - 1);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.getChannel().force(false);
+            out.close();
+            out = null;
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        segment = number;
+        out = new FileOutputStream(directory.resolve(PREFIX + number + SUFFIX).toFile(), true);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> paths = new ArrayList<>(files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .toList());
+            paths.sort((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)));
+            return paths;
+        }
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,111 @@
+package com.restaurant.demo.service.cart;
+
+import com.restaurant.demo.config.branch.BranchContext;
+import com.restaurant.demo.config.branch.Branches;
+import com.restaurant.demo.model.CartItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes cart lines nobody will come back for, so cart_items stays small:
+ *
+ * - abandoned: Pending lines not touched for app.cart.retention.abandoned-after
+ * - finished: Finish / Ordered / Cancelled lines older than app.cart.retention.finished-after
+ *
+ * Lines are removed through the CartStore in chunks of app.cart.retention.chunk-size, each
+ * in its own transaction, so a large backlog never holds locks for long. Each sweep visits
+ * every branch in turn.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cart.retention.enabled", havingValue = "true", matchIfMissing = true)
+public class CartRetentionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartRetentionJob.class);
+
+    private static final List<String> FINISHED_STATUSES =
+            List.of(CartItem.STATUS_FINISH, CartItem.STATUS_ORDERED, CartItem.STATUS_CANCELLED);
+
+    private final CartStore cartStore;
+    private final Branches branches;
+    private final Duration abandonedAfter;
+    private final Duration finishedAfter;
+    private final int chunkSize;
+
+    private final Counter abandonedPurged;
+    private final Counter finishedPurged;
+    private final Timer sweepTimer;
+
+    public CartRetentionJob(CartStore cartStore,
+                            Branches branches,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.cart.retention.abandoned-after:7d}") Duration abandonedAfter,
+                            @Value("${app.cart.retention.finished-after:1d}") Duration finishedAfter,
+                            @Value("${app.cart.retention.chunk-size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("app.cart.retention.chunk-size must be at least 1");
+        }
+        this.cartStore = cartStore;
+        this.branches = branches;
+        this.abandonedAfter = abandonedAfter;
+        this.finishedAfter = finishedAfter;
+        this.chunkSize = chunkSize;
+
+        this.abandonedPurged = Counter.builder("restaurant.cart.purged")
+                .description("Cart lines deleted by the retention job")
+                .tag("reason", "abandoned")
+                .register(meterRegistry);
+        this.finishedPurged = Counter.builder("restaurant.cart.purged")
+                .description("Cart lines deleted by the retention job")
+                .tag("reason", "finished")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("restaurant.cart.purge")
+                .description("Duration of a cart retention sweep")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.cart.retention.initial-delay:1m}",
+               fixedDelayString = "${app.cart.retention.interval:10m}")
+    public void sweep() {
+        branches.forEach(this::sweepBranch);
+    }
+
+    private void sweepBranch() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+
+        long abandoned = purge(CartItem.STATUS_PENDING, now.minus(abandonedAfter), abandonedPurged);
+        long finished = 0;
+        for (String status : FINISHED_STATUSES) {
+            finished += purge(status, now.minus(finishedAfter), finishedPurged);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        sweepTimer.record(Duration.ofNanos(elapsed));
+        if (abandoned + finished > 0) {
+            logger.info("Cart retention removed {} abandoned and {} finished lines of branch {} in {} ms",
+                    abandoned, finished, BranchContext.current(), elapsed / 1_000_000);
+        }
+    }
+
+    private long purge(String status, LocalDateTime cutoff, Counter counter) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = cartStore.purge(status, cutoff, chunkSize);
+            counter.increment(deleted);
+            total += deleted;
+        } while (deleted == chunkSize);
+        return total;
+    }
+}
@@ -0,0 +1,61 @@
+package com.restaurant.demo.service.cart;
+
+import com.restaurant.demo.model.CartItem;
+import com.restaurant.demo.model.Customer;
+import com.restaurant.demo.model.Money;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage for customer cart items. Keeps CartService and checkout
+ * independent of whether carts live in the database or in memory.
+ *
+ * Selected with app.cart.store: "jpa" (default) or "memory".
+ */
+public interface CartStore {
+    List<CartItem> findByCustomer(Customer customer);
+
+    List<CartItem> findByCustomerAndStatus(Customer customer, String status);
+
+    Optional<CartItem> findByCustomerAndItemName(Customer customer, String itemName);
+
+    Optional<CartItem> findById(Long cartItemId);
+
+    List<CartItem> findAll();
+
+    /**
+     * Add quantity to the customer's Pending line for a menu item in one atomic step,
+     * creating the line if there is none. The resulting quantity is capped at 99.
+     */
+    CartItem addPending(Customer customer, Long menuItemId, String itemName, Money itemPrice, int quantity);
+
+    CartItem save(CartItem item);
+
+    List<CartItem> saveAll(List<CartItem> items);
+
+    void delete(CartItem item);
+
+    void deleteAll(List<CartItem> items);
+
+    /**
+     * Remove and return the customer's Pending items for an order.
+     * If the surrounding transaction rolls back the items are back in the cart.
+     */
+    List<CartItem> checkout(Customer customer);
+
+    /**
+     * Delete up to limit lines with the given status that were last touched before the
+     * cutoff, in one short transaction
+     *
+     * @return Lines deleted; fewer than limit once nothing older is left
+     */
+    int purge(String status, LocalDateTime updatedBefore, int limit);
+
+    /**
+     * Pick up rows written to cart_items behind the store's back (e.g. by the dataset loader)
+     */
+    default void reload() {
+    }
+}
@@ -0,0 +1,129 @@
+package com.restaurant.demo.service.cart;
+
+import com.restaurant.demo.model.CartItem;
+import com.restaurant.demo.model.Customer;
+import com.restaurant.demo.model.Money;
+import com.restaurant.demo.repository.CartItemRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Default cart store: every change is written straight to cart_items.
+ * Reads are read-write transactions too, so a cart read right after an update never
+ * comes from a replica that has not caught up.
+ */
+@Component
+@Transactional
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaCartStore implements CartStore {
+
+    private final CartItemRepository cartItemRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JpaCartStore(CartItemRepository cartItemRepository) {
+        this.cartItemRepository = cartItemRepository;
+    }
+
+    @Override
+    public List<CartItem> findByCustomer(Customer customer) {
+        return cartItemRepository.findByCustomer(customer);
+    }
+
+    @Override
+    public List<CartItem> findByCustomerAndStatus(Customer customer, String status) {
+        return cartItemRepository.findByCustomerAndStatus(customer, status);
+    }
+
+    @Override
+    public Optional<CartItem> findByCustomerAndItemName(Customer customer, String itemName) {
+        return cartItemRepository.findByCustomer_IdAndItemName(customer.getId(), itemName);
+    }
+
+    @Override
+    public Optional<CartItem> findById(Long cartItemId) {
+        return cartItemRepository.findById(cartItemId);
+    }
+
+    @Override
+    public List<CartItem> findAll() {
+        return cartItemRepository.findAll();
+    }
+
+    @Override
+    public CartItem addPending(Customer customer, Long menuItemId, String itemName, Money itemPrice, int quantity) {
+        boolean managed = isPendingLineManaged(customer.getId(), menuItemId);
+        cartItemRepository.upsertPending(customer.getId(), menuItemId, itemName, itemPrice.toBigDecimal(), quantity);
+        CartItem line = cartItemRepository.findByCustomer_IdAndMenuItemIdAndStatus(customer.getId(), menuItemId, CartItem.STATUS_PENDING)
+                .orElseThrow(() -> new IllegalStateException("Cart line missing after upsert"));
+        if (managed) {
+            // The upsert bypassed the persistence context and the select returned the attached,
+            // stale instance; only this line can be stale, the rest stays attached
+            entityManager.refresh(line);
+        }
+        return line;
+    }
+
+    // Looks in the persistence context only; no statement
+    private boolean isPendingLineManaged(Long customerId, Long menuItemId) {
+        return entityManager.unwrap(SharedSessionContractImplementor.class)
+                .getPersistenceContextInternal()
+                .getEntitiesByKey()
+                .values()
+                .stream()
+                .anyMatch(entity -> entity instanceof CartItem line
+                        && menuItemId.equals(line.getMenuItemId())
+                        && CartItem.STATUS_PENDING.equals(line.getStatus())
+                        && line.getCustomer() != null
+                        && customerId.equals(line.getCustomer().getId()));
+    }
+
+    @Override
+    public CartItem save(CartItem item) {
+        return cartItemRepository.save(item);
+    }
+
+    @Override
+    public List<CartItem> saveAll(List<CartItem> items) {
+        return cartItemRepository.saveAll(items);
+    }
+
+    @Override
+    public void delete(CartItem item) {
+        cartItemRepository.delete(item);
+    }
+
+    @Override
+    public void deleteAll(List<CartItem> items) {
+        cartItemRepository.deleteAll(items);
+    }
+
+    @Override
+    public int purge(String status, LocalDateTime updatedBefore, int limit) {
+        List<Long> ids = cartItemRepository.findIdsByStatusUpdatedBefore(status, updatedBefore, PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        cartItemRepository.deleteByIdsUpdatedBefore(ids, updatedBefore);
+        // Report the chunk size so the caller keeps going even if a few lines were touched meanwhile
+        return ids.size();
+    }
+
+    @Override
+    public List<CartItem> checkout(Customer customer) {
+        // Deleted in the caller's transaction, so a rollback keeps the rows
+        List<CartItem> items = cartItemRepository.findByCustomerAndStatus(customer, CartItem.STATUS_PENDING);
+        cartItemRepository.deleteAll(items);
+        return items;
+    }
+}
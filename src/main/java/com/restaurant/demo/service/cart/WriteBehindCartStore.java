@@ -0,0 +1,830 @@
+package com.restaurant.demo.service.cart;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.demo.config.branch.Branches;
+import com.restaurant.demo.model.CartItem;
+import com.restaurant.demo.model.Customer;
+import com.restaurant.demo.model.Money;
+import com.restaurant.demo.repository.CustomerRepository;
+import com.restaurant.demo.service.dataset.DatasetLoadedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cart store that keeps every cart in memory and writes cart_items behind.
+ *
+ * Reads and writes touch only the in-memory carts. Each change is appended to the
+ * CartJournal and recorded in a dirty map keyed by cart item id, so repeated taps on the
+ * same item coalesce into one row. A background thread flushes the dirty map every
+ * app.cart.flush-interval as batched DELETE + INSERT statements in one transaction.
+ * On startup cart_items is loaded, any journal left by a crash is replayed on top, and
+ * the result is flushed before requests are served.
+ *
+ * A checkout journals the deletion of its lines only once the order commits. Until then
+ * the rows stay in cart_items and that customer's changes are held back from flushes.
+ *
+ * Only one application instance may use this store against a database: carts are not
+ * shared between nodes. It also only serves a single branch (see BranchConfig).
+ */
+@Component
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "memory")
+public class WriteBehindCartStore implements CartStore, SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindCartStore.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_SQL = """
+            SELECT id, customer_id, menu_item_id, item_name, item_price, quantity, status, created_at, updated_at
+            FROM cart_items
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO cart_items (id, customer_id, menu_item_id, item_name, item_price, quantity, status, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final class Cart {
+        volatile Customer customer;
+        // Stored items carry no customer reference; copies handed out get the cart's customer
+        final Map<Long, CartItem> items = new LinkedHashMap<>();
+
+        Cart(Customer customer) {
+            this.customer = customer;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomerRepository customerRepository;
+    private final Validator validator;
+    private final CartJournal journal;
+    private final Duration flushInterval;
+
+    private final Map<Long, Cart> carts = new ConcurrentHashMap<>();
+    private final Map<Long, Long> owners = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Mutations hold the read lock; a flush takes the write lock to swap the dirty map
+    // and rotate the journal so both cut over at the same change
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final ReentrantLock flushing = new ReentrantLock();
+    private Map<Long, CartJournal.Entry> dirty = new ConcurrentHashMap<>();
+    // Customers with a checkout waiting for its order to commit, and how many
+    private final Map<Long, Integer> checkingOut = new ConcurrentHashMap<>();
+
+    private final Timer flushTimer;
+    private final Counter flushedRows;
+    private ScheduledExecutorService flusher;
+
+    public WriteBehindCartStore(DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                CustomerRepository customerRepository,
+                                Branches branches,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.cart.journal-dir:data/cart-journal}") Path journalDir,
+                                @Value("${app.cart.journal-fsync:false}") boolean journalFsync,
+                                @Value("${app.cart.flush-interval:1s}") Duration flushInterval) {
+        if (branches.isMultiBranch()) {
+            // One journal and one flusher thread, both bound to the default branch's database
+            throw new IllegalStateException("app.cart.store=memory does not support multiple branches; use app.cart.store=jpa");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.customerRepository = customerRepository;
+        this.validator = validator;
+        this.journal = new CartJournal(journalDir, objectMapper, journalFsync);
+        this.flushInterval = flushInterval;
+
+        Gauge.builder("restaurant.cart.active", carts, Map::size)
+                .description("Customers with items in their cart")
+                .register(meterRegistry);
+        Gauge.builder("restaurant.cart.unflushed", this, store -> store.dirty.size())
+                .description("Cart item changes waiting for the next write-behind flush")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("restaurant.cart.flush")
+                .description("Write-behind flushes of cart_items")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("restaurant.cart.flush.rows")
+                .description("Cart item changes written by the write-behind flusher")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load carts and replay the journal before the web server starts, then start flushing
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        flushLock.writeLock().lock();
+        try {
+            loadFromDatabase();
+            int replayed = replayJournal();
+            logger.info("Cart store loaded {} carts ({} journal entries replayed)", carts.size(), replayed);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        flush();
+        try {
+            // Replayed changes are now in the database; drop any segments left behind
+            journal.discardClosed();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not clean up cart journal", e);
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        flush();
+        journal.close();
+    }
+
+    @Override
+    @EventListener(DatasetLoadedEvent.class)
+    public void reload() {
+        flush();
+        flushLock.writeLock().lock();
+        try {
+            carts.clear();
+            owners.clear();
+            loadFromDatabase();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    // ------------------ Reads ------------------
+
+    @Override
+    public List<CartItem> findByCustomer(Customer customer) {
+        Cart cart = attach(customer);
+        if (cart == null) {
+            return new ArrayList<>();
+        }
+        synchronized (cart) {
+            return copies(cart, cart.items.values());
+        }
+    }
+
+    @Override
+    public List<CartItem> findByCustomerAndStatus(Customer customer, String status) {
+        Cart cart = attach(customer);
+        if (cart == null) {
+            return new ArrayList<>();
+        }
+        synchronized (cart) {
+            return copies(cart, cart.items.values().stream()
+                    .filter(item -> status.equals(item.getStatus()))
+                    .toList());
+        }
+    }
+
+    @Override
+    public Optional<CartItem> findByCustomerAndItemName(Customer customer, String itemName) {
+        Cart cart = attach(customer);
+        if (cart == null) {
+            return Optional.empty();
+        }
+        synchronized (cart) {
+            return cart.items.values().stream()
+                    .filter(item -> itemName.equals(item.getItemName()))
+                    .findFirst()
+                    .map(item -> copy(item, cart.customer));
+        }
+    }
+
+    @Override
+    public Optional<CartItem> findById(Long cartItemId) {
+        Long customerId = owners.get(cartItemId);
+        Cart cart = customerId != null ? carts.get(customerId) : null;
+        if (cart == null) {
+            return Optional.empty();
+        }
+        synchronized (cart) {
+            CartItem item = cart.items.get(cartItemId);
+            return item != null ? Optional.of(copy(item, cart.customer)) : Optional.empty();
+        }
+    }
+
+    @Override
+    public List<CartItem> findAll() {
+        List<CartItem> all = new ArrayList<>();
+        for (Cart cart : carts.values()) {
+            synchronized (cart) {
+                all.addAll(copies(cart, cart.items.values()));
+            }
+        }
+        return all;
+    }
+
+    // ------------------ Writes ------------------
+
+    @Override
+    public CartItem addPending(Customer customer, Long menuItemId, String itemName, Money itemPrice, int quantity) {
+        flushLock.readLock().lock();
+        try {
+            while (true) {
+                Cart cart = carts.computeIfAbsent(customer.getId(), id -> new Cart(customer));
+                synchronized (cart) {
+                    if (carts.get(customer.getId()) != cart) {
+                        continue;
+                    }
+                    cart.customer = customer;
+                    LocalDateTime now = LocalDateTime.now();
+                    CartItem line = pendingLine(cart, menuItemId);
+                    if (line != null) {
+                        line.setQuantity(Math.min(line.getQuantity() + quantity, 99));
+                    } else {
+                        line = new CartItem();
+                        line.setItemName(itemName);
+                        line.setItemPriceMoney(itemPrice);
+                        line.setQuantity(quantity);
+                        line.setId(sequence.incrementAndGet());
+                        line.setMenuItemId(menuItemId);
+                        line.setCreatedAt(now);
+                        validate(line, customer);
+                        cart.items.put(line.getId(), line);
+                        owners.put(line.getId(), customer.getId());
+                    }
+                    line.setUpdatedAt(now);
+                    record(toEntry(line, customer.getId()));
+                    return copy(line, customer);
+                }
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public CartItem save(CartItem item) {
+        if (item.getCustomer() == null || item.getCustomer().getId() == null) {
+            throw new IllegalArgumentException("Cart item must belong to a customer");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        CartItem stored = copy(item, null);
+        if (stored.getId() == null) {
+            stored.setId(sequence.incrementAndGet());
+        }
+        if (stored.getCreatedAt() == null) {
+            stored.setCreatedAt(now);
+        }
+        stored.setUpdatedAt(now);
+        validate(stored, item.getCustomer());
+
+        put(stored, item.getCustomer());
+
+        // Same contract as a JPA save: the caller's instance gets the generated values
+        item.setId(stored.getId());
+        item.setCreatedAt(stored.getCreatedAt());
+        item.setUpdatedAt(stored.getUpdatedAt());
+        return copy(stored, item.getCustomer());
+    }
+
+    @Override
+    public List<CartItem> saveAll(List<CartItem> items) {
+        List<CartItem> saved = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            saved.add(save(item));
+        }
+        return saved;
+    }
+
+    @Override
+    public void delete(CartItem item) {
+        if (item.getId() == null) {
+            return;
+        }
+        Long customerId = owners.get(item.getId());
+        Cart cart = customerId != null ? carts.get(customerId) : null;
+        if (cart == null) {
+            return;
+        }
+        flushLock.readLock().lock();
+        try {
+            synchronized (cart) {
+                if (cart.items.remove(item.getId()) != null) {
+                    owners.remove(item.getId());
+                    record(CartJournal.Entry.deleted(item.getId(), customerId));
+                    dropIfEmpty(customerId, cart);
+                }
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAll(List<CartItem> items) {
+        items.forEach(this::delete);
+    }
+
+    @Override
+    public List<CartItem> checkout(Customer customer) {
+        Cart cart = attach(customer);
+        if (cart == null) {
+            return new ArrayList<>();
+        }
+        boolean synchronize = TransactionSynchronizationManager.isSynchronizationActive();
+        List<CartItem> taken = new ArrayList<>();
+        flushLock.readLock().lock();
+        try {
+            synchronized (cart) {
+                cart.items.values().removeIf(item -> {
+                    if (!CartItem.STATUS_PENDING.equals(item.getStatus())) {
+                        return false;
+                    }
+                    taken.add(copy(item, customer));
+                    owners.remove(item.getId());
+                    return true;
+                });
+                dropIfEmpty(customer.getId(), cart);
+                if (!taken.isEmpty() && synchronize) {
+                    checkingOut.merge(customer.getId(), 1, Integer::sum);
+                }
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+        if (taken.isEmpty()) {
+            return taken;
+        }
+
+        if (!synchronize) {
+            recordDeleted(taken, customer.getId());
+            return taken;
+        }
+        // The rows stay in cart_items (and in the journal) until the order is committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordDeleted(taken, customer.getId());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    restore(taken, customer);
+                }
+                checkingOut.computeIfPresent(customer.getId(), (id, count) -> count > 1 ? count - 1 : null);
+            }
+        });
+        return taken;
+    }
+
+    @Override
+    public int purge(String status, LocalDateTime updatedBefore, int limit) {
+        int purged = 0;
+        for (Map.Entry<Long, Cart> entry : carts.entrySet()) {
+            if (purged >= limit) {
+                break;
+            }
+            Long customerId = entry.getKey();
+            Cart cart = entry.getValue();
+            flushLock.readLock().lock();
+            try {
+                synchronized (cart) {
+                    Iterator<CartItem> lines = cart.items.values().iterator();
+                    while (lines.hasNext() && purged < limit) {
+                        CartItem item = lines.next();
+                        if (status.equals(item.getStatus()) && item.getUpdatedAt().isBefore(updatedBefore)) {
+                            lines.remove();
+                            owners.remove(item.getId());
+                            record(CartJournal.Entry.deleted(item.getId(), customerId));
+                            purged++;
+                        }
+                    }
+                    dropIfEmpty(customerId, cart);
+                }
+            } finally {
+                flushLock.readLock().unlock();
+            }
+        }
+        return purged;
+    }
+
+    // ------------------ Flushing ------------------
+
+    /**
+     * Write every pending change to cart_items. Changes from a failed flush are kept
+     * (together with their journal segments) and retried on the next cycle.
+     */
+    public void flush() {
+        flushing.lock();
+        try {
+            Map<Long, CartJournal.Entry> batch;
+            boolean heldBack;
+            long closedSegment;
+            flushLock.writeLock().lock();
+            try {
+                if (dirty.isEmpty()) {
+                    return;
+                }
+                batch = dirty;
+                dirty = new ConcurrentHashMap<>();
+                heldBack = holdBackCheckouts(batch);
+                if (batch.isEmpty()) {
+                    return;
+                }
+                closedSegment = journal.rotate();
+            } finally {
+                flushLock.writeLock().unlock();
+            }
+
+            Timer.Sample sample = Timer.start();
+            Map<Long, CartJournal.Entry> failed = Map.of();
+            try {
+                write(batch.values());
+            } catch (DataIntegrityViolationException e) {
+                // One bad row (e.g. its customer was deleted) must not hold back the rest
+                logger.warn("Cart flush of {} changes rejected, retrying row by row: {}", batch.size(), e.getMessage());
+                failed = writeIndividually(batch);
+            } catch (RuntimeException e) {
+                requeue(batch);
+                throw e;
+            }
+            sample.stop(flushTimer);
+
+            if (!failed.isEmpty()) {
+                // Keep the journal segments until these changes are written
+                requeue(failed);
+                return;
+            }
+            if (heldBack) {
+                // The held-back changes are journaled in the segments just closed
+                return;
+            }
+            journal.discardThrough(closedSegment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rotate cart journal", e);
+        } finally {
+            flushing.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Cart write-behind flush failed; changes kept for the next attempt", e);
+        }
+    }
+
+    private void write(Collection<CartJournal.Entry> entries) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = entries.stream().map(CartJournal.Entry::id).toList();
+            for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+                String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                jdbcTemplate.update("DELETE FROM cart_items WHERE id IN (" + placeholders + ")", chunk.toArray());
+            }
+
+            List<CartJournal.Entry> rows = entries.stream().filter(entry -> !entry.isDelete()).toList();
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, entry) -> {
+                ps.setLong(1, entry.id());
+                ps.setLong(2, entry.customerId());
+                if (entry.menuItemId() != null) {
+                    ps.setLong(3, entry.menuItemId());
+                } else {
+                    ps.setNull(3, Types.BIGINT);
+                }
+                ps.setString(4, entry.itemName());
+                ps.setBigDecimal(5, entry.itemPrice());
+                ps.setInt(6, entry.quantity());
+                ps.setString(7, entry.status());
+                ps.setTimestamp(8, Timestamp.valueOf(entry.createdAt()));
+                ps.setTimestamp(9, Timestamp.valueOf(entry.updatedAt()));
+            });
+            flushedRows.increment(entries.size());
+        });
+    }
+
+    /**
+     * @return Changes that failed for a reason other than a constraint violation
+     */
+    private Map<Long, CartJournal.Entry> writeIndividually(Map<Long, CartJournal.Entry> batch) {
+        Map<Long, CartJournal.Entry> failed = new LinkedHashMap<>();
+        for (CartJournal.Entry entry : batch.values()) {
+            try {
+                write(List.of(entry));
+            } catch (DataIntegrityViolationException e) {
+                logger.error("Dropping cart item {} of customer {}: {}", entry.id(), entry.customerId(), e.getMessage());
+                discard(entry);
+            } catch (RuntimeException e) {
+                failed.put(entry.id(), entry);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Move the changes of customers with a checkout in flight back to the dirty map. Their
+     * ordered rows are still in cart_items until the order commits, so a Pending line added
+     * meanwhile for the same menu item would collide with uk_cart_items_customer_menu_item_status.
+     * Caller holds the flush write lock.
+     *
+     * @return Whether anything was held back
+     */
+    private boolean holdBackCheckouts(Map<Long, CartJournal.Entry> batch) {
+        if (checkingOut.isEmpty()) {
+            return false;
+        }
+        return batch.values().removeIf(entry -> {
+            if (!checkingOut.containsKey(entry.customerId())) {
+                return false;
+            }
+            dirty.put(entry.id(), entry);
+            return true;
+        });
+    }
+
+    private void requeue(Map<Long, CartJournal.Entry> batch) {
+        flushLock.readLock().lock();
+        try {
+            // Anything changed since the batch was taken is newer and wins
+            batch.forEach(dirty::putIfAbsent);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    // ------------------ Internals ------------------
+
+    private void put(CartItem stored, Customer customer) {
+        Long customerId = customer.getId();
+        flushLock.readLock().lock();
+        try {
+            Long previousOwner = owners.put(stored.getId(), customerId);
+            if (previousOwner != null && !previousOwner.equals(customerId)) {
+                Cart previous = carts.get(previousOwner);
+                if (previous != null) {
+                    synchronized (previous) {
+                        previous.items.remove(stored.getId());
+                        dropIfEmpty(previousOwner, previous);
+                    }
+                }
+            }
+            while (true) {
+                Cart cart = carts.computeIfAbsent(customerId, id -> new Cart(customer));
+                synchronized (cart) {
+                    if (carts.get(customerId) != cart) {
+                        // Emptied and dropped between lookup and lock; retry with a fresh cart
+                        continue;
+                    }
+                    cart.customer = customer;
+                    cart.items.put(stored.getId(), stored);
+                    record(toEntry(stored, customerId));
+                    return;
+                }
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private void recordDeleted(List<CartItem> items, Long customerId) {
+        flushLock.readLock().lock();
+        try {
+            items.forEach(item -> record(CartJournal.Entry.deleted(item.getId(), customerId)));
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Put back lines taken by a checkout that rolled back. If the customer has added the same
+     * menu item since, the quantity goes into that Pending line and the old row is deleted,
+     * so there is still one Pending line per menu item.
+     */
+    private void restore(List<CartItem> taken, Customer customer) {
+        Long customerId = customer.getId();
+        flushLock.readLock().lock();
+        try {
+            while (true) {
+                Cart cart = carts.computeIfAbsent(customerId, id -> new Cart(customer));
+                synchronized (cart) {
+                    if (carts.get(customerId) != cart) {
+                        continue;
+                    }
+                    LocalDateTime now = LocalDateTime.now();
+                    for (CartItem item : taken) {
+                        CartItem line = item.getMenuItemId() != null ? pendingLine(cart, item.getMenuItemId()) : null;
+                        if (line != null) {
+                            line.setQuantity(Math.min(line.getQuantity() + item.getQuantity(), 99));
+                            line.setUpdatedAt(now);
+                            record(toEntry(line, customerId));
+                            record(CartJournal.Entry.deleted(item.getId(), customerId));
+                        } else {
+                            CartItem stored = copy(item, null);
+                            cart.items.put(stored.getId(), stored);
+                            owners.put(stored.getId(), customerId);
+                            record(toEntry(stored, customerId));
+                        }
+                    }
+                    return;
+                }
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the cart's monitor
+    private static CartItem pendingLine(Cart cart, Long menuItemId) {
+        return cart.items.values().stream()
+                .filter(item -> menuItemId.equals(item.getMenuItemId())
+                        && CartItem.STATUS_PENDING.equals(item.getStatus()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    // Caller holds the flush read lock (or the write lock during recovery)
+    private void record(CartJournal.Entry entry) {
+        journal.append(entry);
+        dirty.put(entry.id(), entry);
+    }
+
+    private void discard(CartJournal.Entry entry) {
+        Cart cart = carts.get(entry.customerId());
+        if (cart != null) {
+            synchronized (cart) {
+                cart.items.remove(entry.id());
+                dropIfEmpty(entry.customerId(), cart);
+            }
+        }
+        owners.remove(entry.id(), entry.customerId());
+    }
+
+    // Caller holds the cart's monitor
+    private void dropIfEmpty(Long customerId, Cart cart) {
+        if (cart.items.isEmpty()) {
+            carts.remove(customerId, cart);
+        }
+    }
+
+    private Cart attach(Customer customer) {
+        Cart cart = carts.get(customer.getId());
+        if (cart != null) {
+            cart.customer = customer;
+        }
+        return cart;
+    }
+
+    private void validate(CartItem stored, Customer customer) {
+        stored.setCustomer(customer);
+        Set<ConstraintViolation<CartItem>> violations = validator.validate(stored);
+        stored.setCustomer(null);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    private void loadFromDatabase() {
+        long[] maxId = {sequence.get()};
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            CartItem item = new CartItem();
+            item.setId(rs.getLong(1));
+            item.setMenuItemId(rs.getObject(3, Long.class));
+            item.setItemName(rs.getString(4));
+            item.setItemPrice(rs.getBigDecimal(5));
+            item.setQuantity(rs.getInt(6));
+            item.setStatus(rs.getString(7));
+            item.setCreatedAt(rs.getTimestamp(8).toLocalDateTime());
+            item.setUpdatedAt(rs.getTimestamp(9).toLocalDateTime());
+            load(item, rs.getLong(2));
+            maxId[0] = Math.max(maxId[0], item.getId());
+        });
+        sequence.set(maxId[0]);
+
+        customerRepository.findAllById(carts.keySet()).forEach(customer -> carts.get(customer.getId()).customer = customer);
+    }
+
+    private int replayJournal() {
+        int[] replayed = {0};
+        try {
+            journal.open(entry -> {
+                if (entry.isDelete()) {
+                    discard(entry);
+                } else {
+                    CartItem item = new CartItem();
+                    item.setId(entry.id());
+                    item.setMenuItemId(entry.menuItemId());
+                    item.setItemName(entry.itemName());
+                    item.setItemPrice(entry.itemPrice());
+                    item.setQuantity(entry.quantity());
+                    item.setStatus(entry.status());
+                    item.setCreatedAt(entry.createdAt());
+                    item.setUpdatedAt(entry.updatedAt());
+                    load(item, entry.customerId());
+                    sequence.accumulateAndGet(entry.id(), Math::max);
+                }
+                // Already journaled in the segment being replayed; only mark it for the next flush
+                dirty.put(entry.id(), entry);
+                replayed[0]++;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay cart journal", e);
+        }
+        customerRepository.findAllById(carts.keySet()).forEach(customer -> carts.get(customer.getId()).customer = customer);
+        return replayed[0];
+    }
+
+    private void load(CartItem item, Long customerId) {
+        Long previousOwner = owners.put(item.getId(), customerId);
+        if (previousOwner != null && !previousOwner.equals(customerId)) {
+            Cart previous = carts.get(previousOwner);
+            previous.items.remove(item.getId());
+            dropIfEmpty(previousOwner, previous);
+        }
+        carts.computeIfAbsent(customerId, id -> {
+            Customer customer = new Customer();
+            customer.setId(id);
+            return new Cart(customer);
+        }).items.put(item.getId(), item);
+    }
+
+    private static List<CartItem> copies(Cart cart, Collection<CartItem> items) {
+        List<CartItem> result = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            result.add(copy(item, cart.customer));
+        }
+        return result;
+    }
+
+    private static CartItem copy(CartItem source, Customer customer) {
+        CartItem copy = new CartItem();
+        copy.setId(source.getId());
+        copy.setCustomer(customer);
+        copy.setMenuItemId(source.getMenuItemId());
+        copy.setItemName(source.getItemName());
+        copy.setItemPriceMoney(source.getItemPriceMoney());
+        copy.setQuantity(source.getQuantity());
+        copy.setStatus(source.getStatus());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+
+    private static CartJournal.Entry toEntry(CartItem item, Long customerId) {
+        return new CartJournal.Entry(item.getId(), customerId, item.getMenuItemId(), item.getItemName(), item.getItemPrice(),
+                item.getQuantity(), item.getStatus(), item.getCreatedAt(), item.getUpdatedAt());
+    }
+}
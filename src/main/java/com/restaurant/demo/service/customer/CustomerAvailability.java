@@ -0,0 +1,227 @@
+package com.restaurant.demo.service.customer;
+
+import com.restaurant.demo.config.branch.BranchContext;
+import com.restaurant.demo.config.branch.BranchLocal;
+import com.restaurant.demo.config.branch.Branches;
+import com.restaurant.demo.config.replica.ReplicaContext;
+import com.restaurant.demo.repository.CustomerRepository;
+import com.restaurant.demo.service.dataset.DatasetLoadedEvent;
+import com.restaurant.demo.service.order.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Whether a customer username or email is taken, mostly without asking the database.
+ *
+ * Each branch keeps a Bloom filter of its normalized (trimmed, lower-case, accent-folded)
+ * usernames and one of its emails. A value the filter has never seen is free; only probable
+ * hits are confirmed with existsByUsername / existsByEmail. The filters are loaded at
+ * startup, added to as customers register or change their username or email, and rebuilt
+ * every app.customers.availability.rebuild-interval: that drops old values, resizes for
+ * growth and picks up customers registered on other instances. Until then another instance's
+ * new customer can show as available here; the unique constraints on customers still reject
+ * it.
+ *
+ * restaurant.customers.availability.checks counts answers by field and result (free,
+ * taken, false_positive); false_positive / (free + false_positive) is the observed false
+ * positive rate, and restaurant.customers.availability.expected_fpp the rate the filter's
+ * fill predicts.
+ */
+@Component
+public class CustomerAvailability implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerAvailability.class);
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final CustomerRepository customerRepository;
+    private final Branches branches;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry registry;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+
+    private final BranchLocal<AtomicReference<Filters>> filters;
+
+    public CustomerAvailability(CustomerRepository customerRepository,
+                                Branches branches,
+                                DataSource dataSource,
+                                MeterRegistry registry,
+                                @Value("${app.customers.availability.false-positive-rate:0.01}") double falsePositiveRate,
+                                @Value("${app.customers.availability.min-capacity:10000}") long minCapacity) {
+        this.customerRepository = customerRepository;
+        this.branches = branches;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.registry = registry;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+        this.filters = BranchLocal.withInitial(this::register);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        branches.forEach(this::reload);
+    }
+
+    /**
+     * @return Whether a customer on the current branch has this username
+     */
+    public boolean isUsernameTaken(String username) {
+        Filters current = filters.get().get();
+        return check(current.usernames, current.usernameChecks, username, customerRepository::existsByUsername);
+    }
+
+    /**
+     * @return Whether a customer on the current branch has this email
+     */
+    public boolean isEmailTaken(String email) {
+        Filters current = filters.get().get();
+        return check(current.emails, current.emailChecks, email, customerRepository::existsByEmail);
+    }
+
+    /**
+     * Record a new or changed username and email. Call before saving: a value added for a
+     * save that rolls back only costs a database check later. It is added once more after
+     * commit, so a rebuild running meanwhile cannot lose it.
+     */
+    public void added(String username, String email) {
+        add(username, email);
+        AfterCommit.run(() -> add(username, email));
+    }
+
+    @Scheduled(initialDelayString = "${app.customers.availability.rebuild-interval:1h}",
+               fixedDelayString = "${app.customers.availability.rebuild-interval:1h}")
+    public void rebuild() {
+        branches.forEach(this::reload);
+    }
+
+    /**
+     * Rebuild the current branch's filters from the customers table, e.g. after customers
+     * were loaded straight into it
+     */
+    @EventListener(DatasetLoadedEvent.class)
+    public synchronized void reload() {
+        AtomicReference<Filters> reference = filters.get();
+        long customers = ReplicaContext.onPrimary(() -> customerRepository.count());
+        long capacity = Math.max(minCapacity, customers * 2);
+        Filters previous = reference.get();
+        Filters next = new Filters(capacity, falsePositiveRate, previous);
+
+        // Registrations from here on go into both; the query may not see them yet
+        previous.next = next;
+        ReplicaContext.onPrimary(() -> jdbcTemplate.query("SELECT username, email FROM customers", rs -> {
+            next.add(rs.getString(1), rs.getString(2));
+        }));
+        reference.set(next);
+        logger.info("Customer availability filters for branch {} loaded with {} customers (capacity {})",
+                BranchContext.current(), customers, capacity);
+    }
+
+    private void add(String username, String email) {
+        Filters current = filters.get().get();
+        current.add(username, email);
+        Filters next = current.next;
+        if (next != null) {
+            next.add(username, email);
+        }
+    }
+
+    private static boolean check(BloomFilter filter, Checks checks, String value, Predicate<String> exists) {
+        if (!filter.mightContain(normalize(value))) {
+            checks.free.increment();
+            return false;
+        }
+        if (exists.test(value)) {
+            checks.taken.increment();
+            return true;
+        }
+        checks.falsePositive.increment();
+        return false;
+    }
+
+    // Values utf8mb4_0900_ai_ci compares equal must normalize to the same key, or a taken value
+    // reads as free: fold case, accents ("josé" = "jose"), compatibility forms and "ß" = "ss".
+    // Folding more than the collation only costs a false positive.
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFKD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).replace("ß", "ss");
+    }
+
+    // Metrics are per branch; the filters behind them are swapped on every rebuild
+    private AtomicReference<Filters> register() {
+        AtomicReference<Filters> reference = new AtomicReference<>(
+                new Filters(minCapacity, falsePositiveRate, null));
+        String branch = BranchContext.current();
+        for (String field : new String[] {"username", "email"}) {
+            Gauge.builder("restaurant.customers.availability.expected_fpp", reference,
+                            filters -> filters.get().filter(field).expectedFalsePositiveRate())
+                    .description("False positive rate predicted by how full the availability filter is")
+                    .tags("branch", branch, "field", field)
+                    .register(registry);
+        }
+        return reference;
+    }
+
+    private final class Filters {
+        final BloomFilter usernames;
+        final BloomFilter emails;
+        final Checks usernameChecks;
+        final Checks emailChecks;
+        // Set while a rebuild is loading its replacement
+        volatile Filters next;
+
+        Filters(long capacity, double falsePositiveRate, Filters previous) {
+            this.usernames = new BloomFilter(capacity, falsePositiveRate);
+            this.emails = new BloomFilter(capacity, falsePositiveRate);
+            this.usernameChecks = previous != null ? previous.usernameChecks : new Checks("username");
+            this.emailChecks = previous != null ? previous.emailChecks : new Checks("email");
+        }
+
+        void add(String username, String email) {
+            usernames.put(normalize(username));
+            emails.put(normalize(email));
+        }
+
+        BloomFilter filter(String field) {
+            return "username".equals(field) ? usernames : emails;
+        }
+    }
+
+    private final class Checks {
+        final Counter free;
+        final Counter taken;
+        final Counter falsePositive;
+
+        Checks(String field) {
+            String branch = BranchContext.current();
+            this.free = counter(branch, field, "free");
+            this.taken = counter(branch, field, "taken");
+            this.falsePositive = counter(branch, field, "false_positive");
+        }
+
+        private Counter counter(String branch, String field, String result) {
+            return Counter.builder("restaurant.customers.availability.checks")
+                    .description("Username and email availability answers; free ones needed no database query")
+                    .tags("branch", branch, "field", field, "result", result)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package com.restaurant.demo.service.dataset;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Bulk-loads a synthetic but realistically shaped dataset straight through JDBC.
+ *
+ * - Menu popularity and customer activity are Zipfian, so a few dishes and regulars dominate.
+ * - Orders cluster around a lunch and a dinner peak, with busier weekends.
+ * - Past orders are mostly Finish with some Cancelled; today's recent orders are still
+ *   Pending / In Progress so the kitchen queue has work.
+ * - A slice of customers is left with an open cart, some of them stale.
+ *
+ * Rows are written with multi-row INSERTs and explicit IDs (continuing after the current
+ * maximum), committing once per statement, so existing data is kept and memory stays
+ * flat regardless of volume. Works on MySQL and H2.
+ */
+public class DatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final String[] PROTEINS = {"Chicken", "Pork", "Beef", "Shrimp", "Tofu", "Squid"};
+    private static final String[] DISHES = {
+            "Pad Thai", "Pad Kra Pao", "Fried Rice", "Green Curry", "Red Curry", "Tom Yum",
+            "Pad See Ew", "Massaman Curry", "Panang Curry", "Rad Na", "Khao Soi", "Pad Prik Khing"
+    };
+    private static final String[][] FIXED_ITEMS = {
+            // name, category
+            {"ข้าวมันไก่", "Rice"}, {"ต้มยำกุ้ง", "Soup"}, {"ผัดไทย", "Noodles"}, {"ส้มตำ", "Salad"},
+            {"ข้าวเหนียวมะม่วง", "Dessert"}, {"Bamee", "Noodles"}, {"Spring Rolls", "Appetizer"},
+            {"Satay", "Appetizer"}, {"Som Tam", "Salad"}, {"Larb", "Salad"}, {"Tod Mun Pla", "Appetizer"},
+            {"Thai Tea", "Beverages"}, {"Thai Iced Coffee", "Beverages"}, {"Lemongrass Juice", "Beverages"},
+            {"Coconut Water", "Beverages"}, {"Butterfly Pea Lemonade", "Beverages"},
+            {"Mango Sticky Rice", "Dessert"}, {"Coconut Ice Cream", "Dessert"}, {"Bua Loy", "Dessert"}
+    };
+    private static final String[] FIRST_NAMES = {
+            "Somchai", "Somsak", "Malee", "Suda", "Niran", "Ploy", "Anan", "Kanya", "Wichai", "Pim",
+            "Arthit", "Siriporn", "Chai", "Nok", "Preecha", "Ratana", "Thanawat", "Jintana"
+    };
+    private static final String[] LAST_NAMES = {
+            "Saetang", "Srisuk", "Chaiyaporn", "Wongsa", "Boonmee", "Kaewkla", "Thongdee",
+            "Rattanakorn", "Phromma", "Sukjai", "Intharat", "Meechai"
+    };
+
+    private final DataSource dataSource;
+    private final String passwordHash;
+
+    /**
+     * @param dataSource Target database
+     * @param passwordHash Encoded form of {@link DatasetSpec#password()}, shared by every generated customer
+     */
+    public DatasetGenerator(DataSource dataSource, String passwordHash) {
+        this.dataSource = dataSource;
+        this.passwordHash = passwordHash;
+    }
+
+    /**
+     * Summary of a load
+     */
+    public record LoadSummary(long customers, long menuItems, long orders, long orderItems, long cartItems,
+                              long elapsedMillis) {
+
+        public long totalRows() {
+            return customers + menuItems + orders + orderItems + cartItems;
+        }
+    }
+
+    /**
+     * Generate and insert a dataset
+     *
+     * @param spec Size and shape of the dataset
+     * @return What was inserted
+     */
+    public LoadSummary load(DatasetSpec spec) {
+        long start = System.nanoTime();
+        Random random = new Random(spec.randomSeed());
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            if (mysql) {
+                execute(connection, "SET SESSION foreign_key_checks = 0, unique_checks = 0");
+            }
+            try {
+                long firstCustomerId = nextId(connection, "customers");
+                long firstMenuItemId = nextId(connection, "menu_items");
+
+                insertCustomers(connection, spec, random, firstCustomerId);
+                List<MenuRow> menu = insertMenuItems(connection, spec, random, firstMenuItemId);
+
+                long[] customerByRank = shuffledIds(firstCustomerId, spec.customers(), random);
+                MenuRow[] menuByRank = menu.toArray(MenuRow[]::new);
+                shuffle(menuByRank, random);
+
+                Sampler sampler = new Sampler(
+                        new ZipfSampler(spec.customers(), 0.9), customerByRank,
+                        new ZipfSampler(menuByRank.length, 1.1), menuByRank);
+
+                long[] orderCounts = insertOrders(connection, spec, random, sampler);
+                long cartItems = insertCarts(connection, spec, random, sampler);
+
+                if (!mysql) {
+                    // H2 does not move identity columns past explicitly inserted IDs
+                    for (String table : List.of("customers", "menu_items", "orders", "order_items", "cart_items")) {
+                        execute(connection, "ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId(connection, table));
+                    }
+                }
+                connection.commit();
+
+                LoadSummary summary = new LoadSummary(spec.customers(), menu.size(), orderCounts[0], orderCounts[1],
+                        cartItems, (System.nanoTime() - start) / 1_000_000);
+                logger.info("Dataset loaded: {} customers, {} menu items, {} orders, {} order items, {} cart items in {} ms ({} rows/s)",
+                        summary.customers(), summary.menuItems(), summary.orders(), summary.orderItems(),
+                        summary.cartItems(), summary.elapsedMillis(),
+                        summary.totalRows() * 1000 / Math.max(1, summary.elapsedMillis()));
+                return summary;
+            } finally {
+                if (mysql) {
+                    execute(connection, "SET SESSION foreign_key_checks = 1, unique_checks = 1");
+                }
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Dataset load failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void insertCustomers(Connection connection, DatasetSpec spec, Random random, long firstId) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        try (RowWriter writer = new RowWriter(connection, "customers",
+                new String[]{"id", "name", "username", "email", "phone", "password_hash", "created_at", "updated_at"},
+                spec.rowsPerStatement())) {
+            for (long id = firstId; id < firstId + spec.customers(); id++) {
+                Timestamp registered = Timestamp.valueOf(now.minusMinutes(random.nextInt(Math.max(1, spec.days()) * 24 * 60)));
+                writer.add(id,
+                        FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                        "seed" + id,
+                        "seed" + id + "@example.com",
+                        String.format("08%08d", random.nextInt(100_000_000)),
+                        passwordHash,
+                        registered,
+                        registered);
+            }
+        }
+    }
+
+    private List<MenuRow> insertMenuItems(Connection connection, DatasetSpec spec, Random random, long firstId) throws SQLException {
+        List<MenuRow> menu = new ArrayList<>(spec.menuItems());
+        try (RowWriter writer = new RowWriter(connection, "menu_items",
+                new String[]{"id", "category", "name", "price", "description", "active"},
+                spec.rowsPerStatement())) {
+            for (int i = 0; i < spec.menuItems(); i++) {
+                String name;
+                String category;
+                if (i < FIXED_ITEMS.length) {
+                    name = FIXED_ITEMS[i][0];
+                    category = FIXED_ITEMS[i][1];
+                } else if (i < FIXED_ITEMS.length + PROTEINS.length * DISHES.length) {
+                    int index = i - FIXED_ITEMS.length;
+                    String dish = DISHES[index / PROTEINS.length];
+                    name = dish + " " + PROTEINS[index % PROTEINS.length];
+                    category = dish.contains("Curry") || dish.equals("Tom Yum") ? "Curry & Soup"
+                            : dish.contains("Rice") ? "Rice" : "Noodles";
+                } else {
+                    name = "Chef Special " + (i - FIXED_ITEMS.length - PROTEINS.length * DISHES.length + 1);
+                    category = "Specials";
+                }
+                BigDecimal price = category.equals("Beverages")
+                        ? BigDecimal.valueOf(25 + random.nextInt(8) * 5)
+                        : BigDecimal.valueOf(45 + random.nextInt(30) * 5);
+                long id = firstId + i;
+                writer.add(id, category, name, price.doubleValue(), "Synthetic menu item", true);
+                menu.add(new MenuRow(id, name, price.setScale(2)));
+            }
+        }
+        return menu;
+    }
+
+    private long[] insertOrders(Connection connection, DatasetSpec spec, Random random, Sampler sampler) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        long[] perDay = ordersPerDay(spec, today);
+
+        // Archived orders keep their IDs, so new ones must start past them too
+        long orderId = Math.max(nextId(connection, "orders"), nextId(connection, "orders_archive"));
+        long orderItemId = Math.max(nextId(connection, "order_items"), nextId(connection, "order_items_archive"));
+        long orderItems = 0;
+
+        try (RowWriter orders = new RowWriter(connection, "orders",
+                new String[]{"id", "customer_id", "employee_id", "total_amount", "status", "created_at", "updated_at"},
+                spec.rowsPerStatement());
+             RowWriter items = new RowWriter(connection, "order_items",
+                     new String[]{"id", "order_id", "item_name", "item_price", "quantity", "total", "created_at", "updated_at"},
+                     spec.rowsPerStatement())) {
+            // Orders must reach the database before the items that reference them
+            items.dependsOn(orders);
+
+            for (int d = 0; d < spec.days(); d++) {
+                LocalDate day = today.minusDays(spec.days() - 1 - d);
+                LocalDateTime[] times = new LocalDateTime[(int) perDay[d]];
+                for (int i = 0; i < times.length; i++) {
+                    times[i] = orderTime(day, now, random);
+                }
+                Arrays.sort(times);
+
+                for (LocalDateTime createdAt : times) {
+                    String status = status(createdAt, now, random);
+                    LocalDateTime updatedAt = updatedAt(status, createdAt, now, random);
+                    Timestamp created = Timestamp.valueOf(createdAt);
+                    Timestamp updated = Timestamp.valueOf(updatedAt);
+
+                    BigDecimal total = BigDecimal.ZERO;
+                    List<Object[]> lines = new ArrayList<>();
+                    int lineCount = Math.min(8, 1 + geometric(random, 0.45));
+                    Map<String, Boolean> seen = new HashMap<>();
+                    for (int line = 0; line < lineCount; line++) {
+                        MenuRow item = sampler.menuItem(random);
+                        if (seen.putIfAbsent(item.name(), Boolean.TRUE) != null) {
+                            continue;
+                        }
+                        int quantity = quantity(random);
+                        BigDecimal lineTotal = item.price().multiply(BigDecimal.valueOf(quantity));
+                        total = total.add(lineTotal);
+                        lines.add(new Object[]{orderItemId++, orderId, item.name(), item.price(), quantity, lineTotal, created, created});
+                    }
+                    orders.add(orderId++, sampler.customer(random), null, total, status, created, updated);
+                    for (Object[] line : lines) {
+                        items.add(line);
+                    }
+                    orderItems += lines.size();
+                }
+            }
+            return new long[]{orders.rows(), orderItems};
+        }
+    }
+
+    private long insertCarts(Connection connection, DatasetSpec spec, Random random, Sampler sampler) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        long[] customers = sampler.distinctCustomers(spec.carts(), random);
+        try (RowWriter writer = new RowWriter(connection, "cart_items",
+                new String[]{"id", "customer_id", "menu_item_id", "item_name", "item_price", "quantity", "status", "created_at", "updated_at"},
+                spec.rowsPerStatement())) {
+            long id = nextId(connection, "cart_items");
+            for (long customerId : customers) {
+                // One in five carts was abandoned days ago
+                LocalDateTime touched = random.nextInt(5) == 0
+                        ? now.minusDays(1 + random.nextInt(30)).minusMinutes(random.nextInt(24 * 60))
+                        : now.minusMinutes(random.nextInt(120));
+                Timestamp timestamp = Timestamp.valueOf(touched);
+                int lines = 1 + random.nextInt(4);
+                Map<Long, Boolean> seen = new HashMap<>();
+                for (int line = 0; line < lines; line++) {
+                    MenuRow item = sampler.menuItem(random);
+                    if (seen.putIfAbsent(item.id(), Boolean.TRUE) == null) {
+                        writer.add(id++, customerId, item.id(), item.name(), item.price(), quantity(random), "Pending", timestamp, timestamp);
+                    }
+                }
+            }
+            return writer.rows();
+        }
+    }
+
+    /**
+     * Split the order volume across days: weekends are busier and today only
+     * gets the share of the day that has already passed
+     */
+    private static long[] ordersPerDay(DatasetSpec spec, LocalDate today) {
+        double[] weights = new double[spec.days()];
+        double sum = 0;
+        for (int d = 0; d < spec.days(); d++) {
+            DayOfWeek dayOfWeek = today.minusDays(spec.days() - 1 - d).getDayOfWeek();
+            weights[d] = dayOfWeek == DayOfWeek.FRIDAY ? 1.2
+                    : dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY ? 1.35 : 1.0;
+            sum += weights[d];
+        }
+        long[] perDay = new long[spec.days()];
+        long assigned = 0;
+        for (int d = 0; d < spec.days(); d++) {
+            perDay[d] = (long) Math.floor(spec.orders() * weights[d] / sum);
+            assigned += perDay[d];
+        }
+        // Rounding remainder goes to the most recent full days
+        for (int d = spec.days() - 1; assigned < spec.orders(); d = d == 0 ? spec.days() - 1 : d - 1) {
+            perDay[d]++;
+            assigned++;
+        }
+        return perDay;
+    }
+
+    /**
+     * Time of day: 40% around lunch (12:15), 45% around dinner (19:00), the rest spread
+     * across opening hours (10:00 - 21:30). Orders on the current day are never in the future.
+     */
+    private static LocalDateTime orderTime(LocalDate day, LocalDateTime now, Random random) {
+        for (int attempt = 0; attempt < 20; attempt++) {
+            double minutes;
+            double pick = random.nextDouble();
+            if (pick < 0.40) {
+                minutes = 12 * 60 + 15 + random.nextGaussian() * 45;
+            } else if (pick < 0.85) {
+                minutes = 19 * 60 + random.nextGaussian() * 60;
+            } else {
+                minutes = 10 * 60 + random.nextDouble() * 11.5 * 60;
+            }
+            minutes = Math.max(10 * 60, Math.min(21.5 * 60, minutes));
+            LocalDateTime time = day.atStartOfDay().plusSeconds((long) (minutes * 60));
+            if (!time.isAfter(now)) {
+                return time;
+            }
+        }
+        return now.minusSeconds(random.nextInt(3600));
+    }
+
+    private static String status(LocalDateTime createdAt, LocalDateTime now, Random random) {
+        long ageMinutes = Duration.between(createdAt, now).toMinutes();
+        double pick = random.nextDouble();
+        if (ageMinutes < 20) {
+            return pick < 0.6 ? "Pending" : "In Progress";
+        }
+        if (ageMinutes < 60) {
+            return pick < 0.3 ? "In Progress" : pick < 0.95 ? "Finish" : "Cancelled";
+        }
+        return pick < 0.93 ? "Finish" : "Cancelled";
+    }
+
+    private static LocalDateTime updatedAt(String status, LocalDateTime createdAt, LocalDateTime now, Random random) {
+        LocalDateTime updated = switch (status) {
+            case "Finish" -> createdAt.plusMinutes(10 + random.nextInt(31));
+            case "Cancelled" -> createdAt.plusMinutes(1 + random.nextInt(10));
+            case "In Progress" -> createdAt.plusMinutes(2 + random.nextInt(9));
+            default -> createdAt;
+        };
+        return updated.isAfter(now) ? now : updated;
+    }
+
+    /** 75% single portions, 18% two, 7% three */
+    private static int quantity(Random random) {
+        double pick = random.nextDouble();
+        return pick < 0.75 ? 1 : pick < 0.93 ? 2 : 3;
+    }
+
+    private static int geometric(Random random, double p) {
+        int failures = 0;
+        while (random.nextDouble() > p) {
+            failures++;
+        }
+        return failures;
+    }
+
+    private static long[] shuffledIds(long firstId, int count, Random random) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = firstId + i;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        return ids;
+    }
+
+    private static <T> void shuffle(T[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            T swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private record MenuRow(long id, String name, BigDecimal price) {}
+
+    private record Sampler(ZipfSampler customerRanks, long[] customerByRank,
+                           ZipfSampler menuRanks, MenuRow[] menuByRank) {
+
+        long customer(Random random) {
+            return customerByRank[customerRanks.sample(random)];
+        }
+
+        MenuRow menuItem(Random random) {
+            return menuByRank[menuRanks.sample(random)];
+        }
+
+        long[] distinctCustomers(int count, Random random) {
+            long[] ids = customerByRank.clone();
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(ids.length - i);
+                long swap = ids[i];
+                ids[i] = ids[j];
+                ids[j] = swap;
+            }
+            return Arrays.copyOf(ids, count);
+        }
+    }
+
+    /**
+     * Buffers rows for one table and writes them as multi-row INSERT statements,
+     * committing after each statement
+     */
+    private static final class RowWriter implements AutoCloseable {
+
+        private final Connection connection;
+        private final String table;
+        private final String[] columns;
+        private final int rowsPerStatement;
+        private final List<Object[]> buffer;
+        private RowWriter dependency;
+        private PreparedStatement fullStatement;
+        private long rows;
+
+        RowWriter(Connection connection, String table, String[] columns, int rowsPerStatement) {
+            this.connection = connection;
+            this.table = table;
+            this.columns = columns;
+            this.rowsPerStatement = rowsPerStatement;
+            this.buffer = new ArrayList<>(rowsPerStatement);
+        }
+
+        void dependsOn(RowWriter writer) {
+            this.dependency = writer;
+        }
+
+        void add(Object... values) throws SQLException {
+            buffer.add(values);
+            if (buffer.size() == rowsPerStatement) {
+                flush();
+            }
+        }
+
+        long rows() {
+            return rows + buffer.size();
+        }
+
+        void flush() throws SQLException {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            if (dependency != null) {
+                dependency.flush();
+            }
+            boolean full = buffer.size() == rowsPerStatement;
+            if (full && fullStatement == null) {
+                // Parsed once and reused: a 1000-row statement is expensive to prepare
+                fullStatement = connection.prepareStatement(sql(rowsPerStatement));
+            }
+            PreparedStatement statement = full ? fullStatement : connection.prepareStatement(sql(buffer.size()));
+            try {
+                int parameter = 1;
+                for (Object[] row : buffer) {
+                    for (Object value : row) {
+                        statement.setObject(parameter++, value);
+                    }
+                }
+                statement.executeUpdate();
+            } finally {
+                if (!full) {
+                    statement.close();
+                }
+            }
+            connection.commit();
+            rows += buffer.size();
+            buffer.clear();
+        }
+
+        private String sql(int rowCount) {
+            String placeholders = "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+            return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES "
+                    + String.join(", ", Collections.nCopies(rowCount, placeholders));
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                if (fullStatement != null) {
+                    fullStatement.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.restaurant.demo.service.dataset;
+
+/**
+ * Published once a synthetic dataset has been written straight into the current branch's
+ * tables. Caches and in-memory models built from those tables listen for it and rebuild;
+ * listeners run synchronously on the loading thread, so BranchContext still names the branch.
+ *
+ * @param spec The dataset that was loaded
+ */
+public record DatasetLoadedEvent(DatasetSpec spec) {
+}
@@ -0,0 +1,79 @@
+package com.restaurant.demo.service.dataset;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Loads a synthetic dataset on startup when the "seed" profile is active.
+ * Sizes come from app.dataset.* (see application-seed.properties), e.g.
+ * {@code java -jar demo.jar --spring.profiles.active=seed --app.dataset.orders=10000000}
+ *
+ * The rows bypass the services, so a DatasetLoadedEvent is published afterwards for every
+ * cache and in-memory model built from the tables to rebuild itself.
+ */
+@Component
+@Profile("seed")
+public class DatasetLoader implements ApplicationRunner {
+
+    private final DataSource dataSource;
+    private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher events;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.dataset.customers}")
+    private int customers;
+
+    @Value("${app.dataset.menu-items}")
+    private int menuItems;
+
+    @Value("${app.dataset.orders}")
+    private long orders;
+
+    @Value("${app.dataset.carts}")
+    private int carts;
+
+    @Value("${app.dataset.days}")
+    private int days;
+
+    @Value("${app.dataset.rows-per-statement}")
+    private int rowsPerStatement;
+
+    @Value("${app.dataset.random-seed}")
+    private long randomSeed;
+
+    @Value("${app.dataset.password}")
+    private String password;
+
+    @Value("${app.dataset.exit-when-done:false}")
+    private boolean exitWhenDone;
+
+    public DatasetLoader(DataSource dataSource,
+                         PasswordEncoder passwordEncoder,
+                         ApplicationEventPublisher events,
+                         ConfigurableApplicationContext context) {
+        this.dataSource = dataSource;
+        this.passwordEncoder = passwordEncoder;
+        this.events = events;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        DatasetSpec spec = new DatasetSpec(customers, menuItems, orders, carts, days, rowsPerStatement, randomSeed, password);
+        new DatasetGenerator(dataSource, passwordEncoder.encode(password)).load(spec);
+        events.publishEvent(new DatasetLoadedEvent(spec));
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.restaurant.demo.service.dataset;
+
+/**
+ * Size and shape of a synthetic dataset.
+ *
+ * @param customers Customers to create
+ * @param menuItems Menu items to create
+ * @param orders Orders to create, spread over the last {@code days} days
+ * @param carts Customers left with an open (Pending) cart
+ * @param days Length of the order history, ending now
+ * @param rowsPerStatement Rows per multi-row INSERT (and per commit)
+ * @param randomSeed Seed for reproducible datasets
+ * @param password Plain-text password every generated customer can log in with
+ */
+public record DatasetSpec(int customers,
+                          int menuItems,
+                          long orders,
+                          int carts,
+                          int days,
+                          int rowsPerStatement,
+                          long randomSeed,
+                          String password) {
+
+    public DatasetSpec {
+        if (customers < 1 || menuItems < 1 || orders < 0 || carts < 0 || days < 1 || rowsPerStatement < 1) {
+            throw new IllegalArgumentException("Invalid dataset spec: " + this);
+        }
+        if (carts > customers) {
+            throw new IllegalArgumentException("carts must not exceed customers");
+        }
+    }
+}
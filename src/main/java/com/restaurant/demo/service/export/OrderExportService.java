@@ -0,0 +1,237 @@
+package com.restaurant.demo.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.demo.service.order.OrderArchive;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * Streams orders and their items for accounting as CSV or NDJSON.
+ *
+ * Rows are read through a forward-only, read-only JDBC cursor and written straight to the
+ * output as they arrive, so memory stays flat no matter how long the date range is.
+ * MySQL Connector/J ignores a plain fetch size (unless the URL has useCursorFetch=true) and
+ * would buffer the whole result first, so on MySQL the statement asks for row-by-row
+ * streaming with a fetch size of Integer.MIN_VALUE; other databases get app.export.fetch-size.
+ * Ranges reaching back to archived orders also read the archive tables (see OrderArchive).
+ */
+@Service
+public class OrderExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        public static Format fromValue(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Invalid export format: " + value + ". Valid values are: csv, ndjson");
+        }
+    }
+
+    private static final String EXPORT_SQL = """
+            SELECT o.id, o.created_at, o.status, o.customer_id, o.employee_id, o.total_amount,
+                   oi.id, oi.item_name, oi.item_price, oi.quantity, oi.total
+            FROM orders o
+            JOIN order_items oi ON oi.order_id = o.id
+            WHERE o.created_at >= ? AND o.created_at < ?
+            ORDER BY o.created_at, o.id, oi.id
+            """;
+
+    // Each half filters on its own created_at index; the archived half sorts first
+    private static final String EXPORT_WITH_ARCHIVE_SQL = """
+            SELECT o.id, o.created_at, o.status, o.customer_id, o.employee_id, o.total_amount,
+                   oi.id, oi.item_name, oi.item_price, oi.quantity, oi.total
+            FROM orders_archive o
+            JOIN order_items_archive oi ON oi.order_id = o.id
+            WHERE o.created_at >= ? AND o.created_at < ?
+            UNION ALL
+            SELECT o.id, o.created_at, o.status, o.customer_id, o.employee_id, o.total_amount,
+                   oi.id, oi.item_name, oi.item_price, oi.quantity, oi.total
+            FROM orders o
+            JOIN order_items oi ON oi.order_id = o.id
+            WHERE o.created_at >= ? AND o.created_at < ?
+            ORDER BY 2, 1, 7
+            """;
+
+    private static final String[] COLUMNS = {
+            "order_id", "created_at", "status", "customer_id", "employee_id", "order_total",
+            "item_id", "item_name", "item_price", "quantity", "line_total"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OrderArchive orderArchive;
+    private final int fetchSize;
+
+    public OrderExportService(DataSource dataSource,
+                              ObjectMapper objectMapper,
+                              OrderArchive orderArchive,
+                              @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.orderArchive = orderArchive;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Write every order line created between two dates (inclusive) to the output stream
+     *
+     * @param from First day of the range
+     * @param to Last day of the range
+     * @param format CSV or NDJSON
+     * @param out Destination; flushed but not closed
+     * @throws IllegalArgumentException if the range is reversed
+     */
+    public void export(LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+        Query query = orderArchive.overlaps(from.atStartOfDay())
+                ? new Query(EXPORT_WITH_ARCHIVE_SQL, new Object[]{start, end, start, end})
+                : new Query(EXPORT_SQL, new Object[]{start, end});
+
+        try {
+            if (format == Format.CSV) {
+                exportCsv(query, out);
+            } else {
+                exportNdjson(query, out);
+            }
+        } catch (UncheckedIOException e) {
+            // Client went away or the socket failed mid-stream
+            throw e.getCause();
+        }
+    }
+
+    private record Query(String sql, Object[] args) {}
+
+    private PreparedStatementCreator streaming(Query query) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(query.sql(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            boolean mySql = connection.getMetaData().getDatabaseProductName().contains("MySQL");
+            statement.setFetchSize(mySql ? Integer.MIN_VALUE : fetchSize);
+            new ArgumentPreparedStatementSetter(query.args()).setValues(statement);
+            return statement;
+        };
+    }
+
+    private void exportCsv(Query query, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // UTF-8 BOM so spreadsheet tools display Thai item names correctly
+        writer.write('\uFEFF');
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+
+        jdbcTemplate.query(streaming(query), rs -> {
+            try {
+                for (int i = 1; i <= COLUMNS.length; i++) {
+                    if (i > 1) {
+                        writer.write(',');
+                    }
+                    writeCsvValue(writer, rs, i);
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        writer.flush();
+    }
+
+    private void exportNdjson(Query query, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(null);
+
+        jdbcTemplate.query(streaming(query), rs -> {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("orderId", rs.getLong(1));
+                generator.writeStringField("createdAt", formatTimestamp(rs.getTimestamp(2)));
+                generator.writeStringField("status", rs.getString(3));
+                generator.writeNumberField("customerId", rs.getLong(4));
+                long employeeId = rs.getLong(5);
+                if (rs.wasNull()) {
+                    generator.writeNullField("employeeId");
+                } else {
+                    generator.writeNumberField("employeeId", employeeId);
+                }
+                generator.writeNumberField("orderTotal", rs.getBigDecimal(6));
+                generator.writeNumberField("itemId", rs.getLong(7));
+                generator.writeStringField("itemName", rs.getString(8));
+                generator.writeNumberField("itemPrice", rs.getBigDecimal(9));
+                generator.writeNumberField("quantity", rs.getInt(10));
+                generator.writeNumberField("lineTotal", rs.getBigDecimal(11));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        generator.flush();
+    }
+
+    private static void writeCsvValue(Writer writer, ResultSet rs, int column) throws SQLException, IOException {
+        Object value = rs.getObject(column);
+        if (value == null) {
+            return;
+        }
+        String text;
+        if (value instanceof Timestamp timestamp) {
+            text = formatTimestamp(timestamp);
+        } else if (value instanceof BigDecimal decimal) {
+            text = decimal.toPlainString();
+        } else {
+            text = value.toString();
+        }
+
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+
+    private static String formatTimestamp(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+    }
+}
@@ -1,26 +1,40 @@
 package com.restaurant.demo.service.impl;
 
+import com.restaurant.demo.dto.ItemSales;
 import com.restaurant.demo.dto.ReportSummary;
 import com.restaurant.demo.service.ReportService;
+import com.restaurant.demo.service.order.OrderArchive;
+import com.restaurant.demo.service.report.BestSellerService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class ReportServiceImpl implements ReportService {
 
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @Autowired
+    private BestSellerService bestSellerService;
+
     @Override
+    @Timed("restaurant.reports.monthly")
     public ReportSummary getMonthlyReport(Integer month, Integer year) {
         if (year == null) {
             year = java.time.LocalDate.now().getYear();
@@ -29,13 +43,18 @@ public class ReportServiceImpl implements ReportService {
         // ถ้าเลือก “ทั้งปี” (month == null หรือ 0)
         boolean isWholeYear = (month == null || month == 0);
 
+        // Years or months old enough to have archived orders also read the archive tables
+        LocalDateTime from = LocalDate.of(year, isWholeYear ? 1 : month, 1).atStartOfDay();
+        String orders = orderArchive.ordersTable(from);
+        String yearOrders = orderArchive.ordersTable(LocalDate.of(year, 1, 1).atStartOfDay());
+
         // 🔹 1. ยอดขายรวม
         String totalRevenueSql = """
             SELECT COALESCE(SUM(o.total_amount), 0)
-            FROM orders o
+            FROM %s o
             WHERE o.status = 'FINISH'
             AND YEAR(o.created_at) = :year
-            """ + (isWholeYear ? "" : " AND MONTH(o.created_at) = :month");
+            """.formatted(orders) + (isWholeYear ? "" : " AND MONTH(o.created_at) = :month");
 
         var totalRevenueQuery = entityManager.createNativeQuery(totalRevenueSql)
                 .setParameter("year", year);
@@ -45,51 +64,34 @@ public class ReportServiceImpl implements ReportService {
         // 🔹 2. จำนวนออเดอร์ทั้งหมด
         String totalOrdersSql = """
             SELECT COUNT(*)
-            FROM orders o
+            FROM %s o
             WHERE o.status = 'FINISH'
             AND YEAR(o.created_at) = :year
-            """ + (isWholeYear ? "" : " AND MONTH(o.created_at) = :month");
+            """.formatted(orders) + (isWholeYear ? "" : " AND MONTH(o.created_at) = :month");
 
         var totalOrdersQuery = entityManager.createNativeQuery(totalOrdersSql)
                 .setParameter("year", year);
         if (!isWholeYear) totalOrdersQuery.setParameter("month", month);
         long totalOrders = ((Number) totalOrdersQuery.getSingleResult()).longValue();
 
-        // 🔹 3. เมนูขายดีที่สุด
-        String topMenuSql = """
-            SELECT oi.item_name, SUM(oi.quantity) AS total_sold
-            FROM order_items oi
-            JOIN orders o ON oi.order_id = o.id
-            WHERE o.status = 'FINISH'
-            AND YEAR(o.created_at) = :year
-            """ + (isWholeYear ? "" : " AND MONTH(o.created_at) = :month") + """
-            GROUP BY oi.item_name
-            ORDER BY total_sold DESC
-            LIMIT 1
-        """;
-
-        var topMenuQuery = entityManager.createNativeQuery(topMenuSql)
-                .setParameter("year", year);
-        if (!isWholeYear) topMenuQuery.setParameter("month", month);
-
+        // 🔹 3. เมนูขายดีที่สุด (จากยอดขายรายวันที่สรุปไว้แล้ว)
         String topMenu = "-";
         long topCount = 0;
-        List<Object[]> topResult = topMenuQuery.getResultList();
-        if (!topResult.isEmpty()) {
-            Object[] row = topResult.get(0);
-            topMenu = Optional.ofNullable(row[0]).map(Object::toString).orElse("-");
-            topCount = ((Number) row[1]).longValue();
+        List<ItemSales> top = bestSellerService.top(from.toLocalDate(), lastDay(year, month), 1);
+        if (!top.isEmpty()) {
+            topMenu = top.get(0).itemName();
+            topCount = top.get(0).quantity();
         }
 
         // 🔹 4. ยอดขายรายเดือน (เพื่อใช้ทำกราฟ)
         String monthlySalesSql = """
             SELECT MONTH(o.created_at), COALESCE(SUM(o.total_amount), 0)
-            FROM orders o
+            FROM %s o
             WHERE o.status = 'FINISH'
             AND YEAR(o.created_at) = :year
             GROUP BY MONTH(o.created_at)
             ORDER BY MONTH(o.created_at)
-        """;
+        """.formatted(yearOrders);
 
         var monthlySalesQuery = entityManager.createNativeQuery(monthlySalesSql)
                 .setParameter("year", year);
@@ -111,4 +113,20 @@ public class ReportServiceImpl implements ReportService {
         // 🔹 รวมข้อมูลทั้งหมดลงใน DTO
         return new ReportSummary(totalRevenue, totalOrders, topMenu, topCount, monthlySales);
     }
+
+    @Override
+    public Map<String, Long> getItemsSold(Integer month, Integer year) {
+        if (year == null) {
+            year = LocalDate.now().getYear();
+        }
+        boolean isWholeYear = (month == null || month == 0);
+        return bestSellerService.itemsSold(LocalDate.of(year, isWholeYear ? 1 : month, 1), lastDay(year, month));
+    }
+
+    private static LocalDate lastDay(int year, Integer month) {
+        if (month == null || month == 0) {
+            return LocalDate.of(year, 12, 31);
+        }
+        return YearMonth.of(year, month).atEndOfMonth();
+    }
 }
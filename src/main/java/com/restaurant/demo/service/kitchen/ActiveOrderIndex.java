@@ -0,0 +1,187 @@
+package com.restaurant.demo.service.kitchen;
+
+import com.restaurant.demo.config.branch.BranchLocal;
+import com.restaurant.demo.dto.OrderResponseDto;
+import com.restaurant.demo.model.OrderStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory index of the orders the kitchen is working on (Pending and In Progress).
+ *
+ * Each active status has its own lane ordered by creation time (oldest first), plus a
+ * counter so the pending badge is O(1). Reads are lock-free; writes are serialized
+ * because an order moving between lanes touches two maps. Orders reaching a terminal
+ * status (Finish, Cancelled) are evicted, leaving a tombstone with their updatedAt so an
+ * after-commit upsert that arrives late (an earlier transition losing the race) cannot put
+ * them back. Tombstones are kept for the most recent MAX_TOMBSTONES evictions per branch.
+ * Each branch has its own index.
+ */
+@Component
+public class ActiveOrderIndex {
+
+    private static final Comparator<QueueKey> QUEUE_ORDER = Comparator
+            .comparing(QueueKey::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(QueueKey::orderId);
+
+    // Late callbacks arrive within moments of the eviction; this covers far more than a rush
+    static final int MAX_TOMBSTONES = 10_000;
+
+    private final BranchLocal<Index> indexes = BranchLocal.withInitial(Index::new);
+
+    /**
+     * Check whether a status is served from the index
+     * @param status The order status
+     * @return true for Pending and In Progress
+     */
+    public static boolean isActive(OrderStatus status) {
+        return status == OrderStatus.PENDING || status == OrderStatus.IN_PROGRESS;
+    }
+
+    /**
+     * Insert an order, move it to the lane of its new status, or evict it when terminal
+     * @param order The latest view of the order
+     */
+    public void upsert(OrderResponseDto order) {
+        Index index = indexes.get();
+        synchronized (index) {
+            index.upsert(order);
+        }
+    }
+
+    /**
+     * Replace the current branch's index with a fresh snapshot from the database. The
+     * snapshot wins over tombstones; tombstones of other orders are kept for late callbacks.
+     * @param activeOrders Every Pending and In Progress order
+     */
+    public void reload(List<OrderResponseDto> activeOrders) {
+        Index index = indexes.get();
+        synchronized (index) {
+            index.lanes.values().forEach(Lane::clear);
+            index.locations.clear();
+            activeOrders.forEach(order -> {
+                index.tombstones.remove(order.getOrderId());
+                index.upsert(order);
+            });
+        }
+    }
+
+    /**
+     * Orders in a lane, oldest first
+     * @param status Pending or In Progress
+     * @return Snapshot of the lane
+     */
+    public List<OrderResponseDto> getOrders(OrderStatus status) {
+        return new ArrayList<>(indexes.get().lane(status).orders.values());
+    }
+
+    /**
+     * Number of orders in a lane
+     * @param status Pending or In Progress
+     * @return Lane size
+     */
+    public long count(OrderStatus status) {
+        return indexes.get().lane(status).size.get();
+    }
+
+    /**
+     * One branch's lanes; writes lock the Index so branches never wait on each other
+     */
+    private static final class Index {
+        private final Map<OrderStatus, Lane> lanes = new EnumMap<>(OrderStatus.class);
+        private final Map<Long, QueueKey> locations = new ConcurrentHashMap<>();
+        // Evicted order ID -> its updatedAt when evicted, oldest eviction first; guarded by the Index lock
+        private final Map<Long, LocalDateTime> tombstones = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, LocalDateTime> eldest) {
+                return size() > MAX_TOMBSTONES;
+            }
+        };
+
+        private Index() {
+            lanes.put(OrderStatus.PENDING, new Lane());
+            lanes.put(OrderStatus.IN_PROGRESS, new Lane());
+        }
+
+        private Lane lane(OrderStatus status) {
+            Lane lane = lanes.get(status);
+            if (lane == null) {
+                throw new IllegalArgumentException("Status is not indexed: " + status);
+            }
+            return lane;
+        }
+
+        private void upsert(OrderResponseDto order) {
+            if (isOlderThanIndexed(order) || isNotNewerThanEvicted(order)) {
+                // A newer transition for this order has already been applied
+                return;
+            }
+            remove(order.getOrderId());
+
+            OrderStatus status = OrderStatus.fromValue(order.getStatus());
+            if (!isActive(status)) {
+                tombstones.remove(order.getOrderId());
+                tombstones.put(order.getOrderId(), order.getUpdatedAt());
+                return;
+            }
+            tombstones.remove(order.getOrderId());
+
+            QueueKey key = new QueueKey(order.getCreatedAt(), order.getOrderId(), status);
+            Lane lane = lanes.get(status);
+            lane.orders.put(key, order);
+            lane.size.incrementAndGet();
+            locations.put(order.getOrderId(), key);
+        }
+
+        private boolean isOlderThanIndexed(OrderResponseDto order) {
+            QueueKey existing = locations.get(order.getOrderId());
+            if (existing == null || order.getUpdatedAt() == null) {
+                return false;
+            }
+            OrderResponseDto indexed = lanes.get(existing.status()).orders.get(existing);
+            return indexed != null && indexed.getUpdatedAt() != null
+                    && indexed.getUpdatedAt().isAfter(order.getUpdatedAt());
+        }
+
+        private boolean isNotNewerThanEvicted(OrderResponseDto order) {
+            if (!tombstones.containsKey(order.getOrderId())) {
+                return false;
+            }
+            LocalDateTime evictedAt = tombstones.get(order.getOrderId());
+            return evictedAt == null || order.getUpdatedAt() == null || !order.getUpdatedAt().isAfter(evictedAt);
+        }
+
+        private void remove(Long orderId) {
+            QueueKey existing = locations.remove(orderId);
+            if (existing != null) {
+                Lane lane = lanes.get(existing.status());
+                if (lane.orders.remove(existing) != null) {
+                    lane.size.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private record QueueKey(LocalDateTime createdAt, Long orderId, OrderStatus status) {}
+
+    private static final class Lane {
+        private final ConcurrentNavigableMap<QueueKey, OrderResponseDto> orders = new ConcurrentSkipListMap<>(QUEUE_ORDER);
+        private final AtomicInteger size = new AtomicInteger();
+
+        private void clear() {
+            orders.clear();
+            size.set(0);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.restaurant.demo.service.kitchen;
+
+import com.restaurant.demo.config.branch.BranchContext;
+import com.restaurant.demo.config.branch.Branches;
+import com.restaurant.demo.config.replica.ReplicaContext;
+import com.restaurant.demo.dto.OrderResponseDto;
+import com.restaurant.demo.model.OrderStatus;
+import com.restaurant.demo.service.OrderService;
+import com.restaurant.demo.service.dataset.DatasetLoadedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kitchen-facing view of the order queue.
+ * Pending and In Progress orders are answered from the ActiveOrderIndex without touching
+ * the database; other statuses fall through to OrderService.
+ */
+@Service
+public class KitchenQueueService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(KitchenQueueService.class);
+
+    private final ActiveOrderIndex activeOrderIndex;
+    private final OrderService orderService;
+    private final Branches branches;
+
+    public KitchenQueueService(ActiveOrderIndex activeOrderIndex, OrderService orderService, Branches branches) {
+        this.activeOrderIndex = activeOrderIndex;
+        this.orderService = orderService;
+        this.branches = branches;
+    }
+
+    /**
+     * Warm the index from the database once all beans are ready,
+     * before the web server starts accepting requests
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        branches.forEach(this::warm);
+    }
+
+    /**
+     * Reload the current branch's index with every active order from the database
+     */
+    @EventListener(DatasetLoadedEvent.class)
+    public void warm() {
+        List<OrderResponseDto> activeOrders = new ArrayList<>();
+        // The index is kept current by commit hooks from here on, so it must start from the primary
+        ReplicaContext.onPrimary(() -> {
+            activeOrders.addAll(orderService.getAllOrdersByStatus(OrderStatus.PENDING.getValue()));
+            activeOrders.addAll(orderService.getAllOrdersByStatus(OrderStatus.IN_PROGRESS.getValue()));
+        });
+        activeOrderIndex.reload(activeOrders);
+        logger.info("Active order index for branch {} warmed with {} orders", BranchContext.current(), activeOrders.size());
+    }
+
+    /**
+     * Get orders with the given status, oldest first for active statuses
+     *
+     * @param status The status to filter by (Pending, In Progress, Finish, Cancelled)
+     * @return List of OrderResponseDto
+     * @throws IllegalArgumentException if the status is invalid
+     */
+    public List<OrderResponseDto> getOrders(String status) {
+        if (!OrderStatus.isValid(status)) {
+            throw new IllegalArgumentException("Invalid status: " + status);
+        }
+        OrderStatus orderStatus = OrderStatus.fromValue(status);
+        if (ActiveOrderIndex.isActive(orderStatus)) {
+            return activeOrderIndex.getOrders(orderStatus);
+        }
+        return orderService.getAllOrdersByStatus(status);
+    }
+
+    /**
+     * Count orders with the given status
+     *
+     * @param status The status to count
+     * @return Count of orders with the specified status
+     * @throws IllegalArgumentException if the status is invalid
+     */
+    public Long getOrderCount(String status) {
+        if (!OrderStatus.isValid(status)) {
+            throw new IllegalArgumentException("Invalid status: " + status);
+        }
+        OrderStatus orderStatus = OrderStatus.fromValue(status);
+        if (ActiveOrderIndex.isActive(orderStatus)) {
+            return activeOrderIndex.count(orderStatus);
+        }
+        return orderService.getOrderCountByStatus(status);
+    }
+}
@@ -0,0 +1,132 @@
+package com.restaurant.demo.service.manager;
+
+import com.restaurant.demo.config.branch.BranchContext;
+import com.restaurant.demo.config.replica.ReplicaContext;
+import com.restaurant.demo.dto.Dashboard;
+import com.restaurant.demo.dto.MenuItemResponse;
+import com.restaurant.demo.service.ManagerService;
+import com.restaurant.demo.service.MenuItemService;
+import com.restaurant.demo.service.OrderService;
+import com.restaurant.demo.service.ReportService;
+import com.restaurant.demo.service.order.OrderStatusHistory;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Everything the manager dashboard shows on load, gathered in one request.
+ *
+ * Each widget runs on a small fixed pool, bound to the caller's branch (and to the primary
+ * if the caller must read its own writes), so the request takes as long as the slowest
+ * widget rather than the sum of them. A widget that fails or is not done within
+ * app.dashboard.widget-timeout of the request starting is left out and listed as unavailable.
+ */
+@Service
+public class DashboardService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    private final SalesReportService salesReportService;
+    private final OrderService orderService;
+    private final OrderStatusHistory orderStatusHistory;
+    private final ReportService reportService;
+    private final MenuItemService menuItemService;
+    private final ManagerService managerService;
+    private final long widgetTimeoutNanos;
+    private final ExecutorService workers;
+
+    public DashboardService(SalesReportService salesReportService,
+                            OrderService orderService,
+                            OrderStatusHistory orderStatusHistory,
+                            ReportService reportService,
+                            MenuItemService menuItemService,
+                            ManagerService managerService,
+                            @Value("${app.dashboard.threads:8}") int threads,
+                            @Value("${app.dashboard.widget-timeout:3s}") Duration widgetTimeout) {
+        this.salesReportService = salesReportService;
+        this.orderService = orderService;
+        this.orderStatusHistory = orderStatusHistory;
+        this.reportService = reportService;
+        this.menuItemService = menuItemService;
+        this.managerService = managerService;
+        this.widgetTimeoutNanos = widgetTimeout.toNanos();
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load every widget concurrently
+     *
+     * @return The widgets that loaded in time, and the names of those that did not
+     */
+    @Timed("restaurant.dashboard")
+    public Dashboard load() {
+        LocalDate today = LocalDate.now();
+        Map<String, Supplier<Object>> widgets = new LinkedHashMap<>();
+        widgets.put("salesToday", salesReportService::getDailySalesReport);
+        widgets.put("orderStats", orderService::getOrderStats);
+        widgets.put("kitchenTimes", () -> orderStatusHistory.timings(1));
+        widgets.put("monthlyReport", () -> reportService.getMonthlyReport(today.getMonthValue(), today.getYear()));
+        widgets.put("menuItems", () -> menuItemService.getAllMenuItems().stream()
+                .map(MenuItemResponse::fromEntity)
+                .toList());
+        widgets.put("employees", managerService::getAllEmployees);
+
+        String branch = BranchContext.current();
+        boolean primaryRequired = ReplicaContext.isPrimaryRequired();
+        long deadline = System.nanoTime() + widgetTimeoutNanos;
+        Map<String, Future<Object>> futures = new LinkedHashMap<>();
+        widgets.forEach((name, widget) -> futures.put(name, workers.submit(() -> BranchContext.call(branch,
+                () -> primaryRequired ? ReplicaContext.onPrimary(widget) : widget.get()))));
+
+        Map<String, Object> loaded = new LinkedHashMap<>();
+        List<String> unavailable = new ArrayList<>();
+        for (Map.Entry<String, Future<Object>> entry : futures.entrySet()) {
+            String name = entry.getKey();
+            Future<Object> future = entry.getValue();
+            try {
+                loaded.put(name, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                unavailable.add(name);
+                logger.warn("Dashboard widget {} not ready after {} ms", name,
+                        TimeUnit.NANOSECONDS.toMillis(widgetTimeoutNanos));
+            } catch (ExecutionException e) {
+                unavailable.add(name);
+                logger.warn("Dashboard widget {} failed", name, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                unavailable.add(name);
+            }
+        }
+        return new Dashboard(loaded, unavailable);
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,265 @@
+package com.restaurant.demo.service.menu;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.demo.config.branch.BranchContext;
+import com.restaurant.demo.config.branch.BranchLocal;
+import com.restaurant.demo.config.branch.Branches;
+import com.restaurant.demo.config.replica.ReplicaContext;
+import com.restaurant.demo.model.MenuItem;
+import com.restaurant.demo.repository.MenuItemRepo;
+import com.restaurant.demo.service.dataset.DatasetLoadedEvent;
+import com.restaurant.demo.service.order.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Customer-facing menu catalog: active items only, grouped by category, versioned.
+ *
+ * The catalog is rebuilt from menu_items after every menu change commits. A rebuild
+ * that changes nothing keeps the current version. Each item remembers the version it
+ * last changed in, and removed or deactivated items leave a tombstone, so a client on
+ * version N can be sent only what changed since N. The full payload is serialized once
+ * per version; each delta is serialized once per (version, sinceVersion) pair.
+ *
+ * The same changes are passed on to MenuSearchIndex.
+ *
+ * Versions start at the boot time in milliseconds, so a version handed out by an
+ * earlier process is always older than the current baseline and gets a full response.
+ */
+@Service
+public class MenuCatalog implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuCatalog.class);
+
+    private static final String UNCATEGORIZED = "Other";
+
+    private final MenuItemRepo menuItemRepo;
+    private final ObjectMapper objectMapper;
+    private final long baseVersion = System.currentTimeMillis();
+
+    private final Branches branches;
+    private final MenuSearchIndex searchIndex;
+
+    // Each branch has its own menu and therefore its own catalog
+    private final BranchLocal<AtomicReference<Snapshot>> snapshots = BranchLocal.withInitial(AtomicReference::new);
+
+    public MenuCatalog(MenuItemRepo menuItemRepo, ObjectMapper objectMapper, Branches branches,
+                       MenuSearchIndex searchIndex) {
+        this.menuItemRepo = menuItemRepo;
+        this.objectMapper = objectMapper;
+        this.branches = branches;
+        this.searchIndex = searchIndex;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        branches.forEach(this::refresh);
+    }
+
+    /**
+     * Rebuild the catalog once the current transaction commits (immediately if there is none)
+     */
+    public void refreshAfterCommit() {
+        AfterCommit.run(this::refresh);
+    }
+
+    /**
+     * Rebuild the current branch's catalog from the database, bumping the version only if something changed
+     */
+    @EventListener(DatasetLoadedEvent.class)
+    public synchronized void refresh() {
+        Map<Long, CatalogItem> current = new HashMap<>();
+        // Runs right after menu commits; a lagging replica would rebuild the old menu
+        for (MenuItem menuItem : ReplicaContext.onPrimary(menuItemRepo::findByActiveTrue)) {
+            current.put(menuItem.getId(), CatalogItem.fromEntity(menuItem));
+        }
+
+        AtomicReference<Snapshot> snapshot = snapshots.get();
+        Snapshot previous = snapshot.get();
+        if (previous == null) {
+            Map<Long, Long> versions = new HashMap<>();
+            current.keySet().forEach(id -> versions.put(id, baseVersion));
+            snapshot.set(new Snapshot(baseVersion, current, versions, Map.of()));
+            searchIndex.replace(current.values());
+            logger.info("Menu catalog for branch {} loaded with {} items, version {}",
+                    BranchContext.current(), current.size(), baseVersion);
+            return;
+        }
+
+        long version = previous.version + 1;
+        List<CatalogItem> changed = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        Map<Long, Long> versions = new HashMap<>();
+        Map<Long, Long> tombstones = new HashMap<>(previous.tombstones);
+
+        for (Map.Entry<Long, CatalogItem> entry : current.entrySet()) {
+            Long id = entry.getKey();
+            if (entry.getValue().equals(previous.items.get(id))) {
+                versions.put(id, previous.versions.get(id));
+            } else {
+                versions.put(id, version);
+                tombstones.remove(id);
+                changed.add(entry.getValue());
+            }
+        }
+        for (Long id : previous.items.keySet()) {
+            if (!current.containsKey(id)) {
+                tombstones.put(id, version);
+                removed.add(id);
+            }
+        }
+
+        if (!changed.isEmpty() || !removed.isEmpty()) {
+            snapshot.set(new Snapshot(version, current, versions, tombstones));
+            searchIndex.apply(changed, removed);
+            logger.info("Menu catalog for branch {} updated to version {} ({} items)",
+                    BranchContext.current(), version, current.size());
+        }
+    }
+
+    /**
+     * Current catalog version
+     */
+    public long getVersion() {
+        return snapshot().version;
+    }
+
+    /**
+     * The full catalog as JSON
+     *
+     * @return Serialized {@link CatalogResponse} with full=true
+     */
+    public byte[] getFullJson() {
+        return snapshot().full();
+    }
+
+    /**
+     * Changes since a version the client already has
+     *
+     * @param sinceVersion The client's version
+     * @return Serialized delta, or empty if the version is unknown (older than this process) and a full response is needed
+     */
+    public Optional<byte[]> getDeltaJson(long sinceVersion) {
+        Snapshot current = snapshot();
+        if (sinceVersion < baseVersion || sinceVersion > current.version) {
+            return Optional.empty();
+        }
+        return Optional.of(current.delta(sinceVersion));
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshots.get().get();
+        if (current == null) {
+            refresh();
+            current = snapshots.get().get();
+        }
+        return current;
+    }
+
+    /**
+     * One catalog entry; price as the menu stores it. The category is implied by the enclosing group.
+     */
+    public record CatalogItem(Long id, String name, double price, @JsonIgnore String category, String description) {
+
+        static CatalogItem fromEntity(MenuItem menuItem) {
+            String category = menuItem.getCategory() == null || menuItem.getCategory().isBlank()
+                    ? UNCATEGORIZED : menuItem.getCategory();
+            return new CatalogItem(menuItem.getId(), menuItem.getName(), menuItem.getPrice(), category,
+                    menuItem.getDescription());
+        }
+    }
+
+    public record Category(String name, List<CatalogItem> items) {}
+
+    /**
+     * Wire format. A full response lists every item; a delta lists changed or added items
+     * in categories and the IDs of items to drop in removed.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record CatalogResponse(long version, boolean full, Long sinceVersion, List<Category> categories,
+                                  List<Long> removed) {}
+
+    private final class Snapshot {
+
+        private final long version;
+        private final Map<Long, CatalogItem> items;
+        private final Map<Long, Long> versions;
+        private final Map<Long, Long> tombstones;
+        private final Map<Long, byte[]> deltas = new ConcurrentHashMap<>();
+        private volatile byte[] full;
+
+        private Snapshot(long version, Map<Long, CatalogItem> items, Map<Long, Long> versions, Map<Long, Long> tombstones) {
+            this.version = version;
+            this.items = items;
+            this.versions = versions;
+            this.tombstones = tombstones;
+        }
+
+        private byte[] full() {
+            byte[] json = full;
+            if (json == null) {
+                json = serialize(new CatalogResponse(version, true, null, group(items.values()), List.of()));
+                full = json;
+            }
+            return json;
+        }
+
+        private byte[] delta(long sinceVersion) {
+            return deltas.computeIfAbsent(sinceVersion, since -> {
+                List<CatalogItem> changed = new ArrayList<>();
+                items.forEach((id, item) -> {
+                    if (versions.get(id) > since) {
+                        changed.add(item);
+                    }
+                });
+                List<Long> removed = new ArrayList<>();
+                tombstones.forEach((id, removedIn) -> {
+                    if (removedIn > since) {
+                        removed.add(id);
+                    }
+                });
+                removed.sort(Comparator.naturalOrder());
+                return serialize(new CatalogResponse(version, false, since, group(changed), removed));
+            });
+        }
+
+        private List<Category> group(Collection<CatalogItem> catalogItems) {
+            Map<String, List<CatalogItem>> byCategory = new TreeMap<>();
+            for (CatalogItem item : catalogItems) {
+                byCategory.computeIfAbsent(item.category(), key -> new ArrayList<>()).add(item);
+            }
+            List<Category> categories = new ArrayList<>();
+            byCategory.forEach((name, list) -> {
+                list.sort(Comparator.comparing(CatalogItem::name, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(CatalogItem::id));
+                categories.add(new Category(name, List.copyOf(list)));
+            });
+            return categories;
+        }
+
+        private byte[] serialize(CatalogResponse response) {
+            try {
+                return objectMapper.writeValueAsBytes(response);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unable to serialize menu catalog", e);
+            }
+        }
+    }
+}
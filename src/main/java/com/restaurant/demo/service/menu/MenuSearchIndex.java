@@ -0,0 +1,277 @@
+package com.restaurant.demo.service.menu;
+
+import com.restaurant.demo.config.branch.BranchLocal;
+import com.restaurant.demo.service.menu.MenuCatalog.CatalogItem;
+import org.springframework.stereotype.Component;
+
+import java.text.BreakIterator;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory search over the active menu for the customer search box and its autocomplete.
+ *
+ * Thai is written without spaces between words, so text is not split into words for
+ * indexing: every one- and two-character sequence of the item's name, category and
+ * description (within whitespace-separated runs) points to the items containing it. A
+ * query is looked up through the postings of its own bigrams, and the few candidates are
+ * confirmed by substring match. Text is NFKC-normalized and lower-cased, and Thai tone
+ * marks are dropped on both sides, so "ตมยำ" still finds "ต้มยำ".
+ *
+ * Kept in step by MenuCatalog: each refresh passes only the items that changed or went away.
+ */
+@Component
+public class MenuSearchIndex {
+
+    private static final Locale THAI = Locale.forLanguageTag("th");
+
+    // Name first, matches at the start of a word before matches inside one
+    private static final int NAME_START = 0;
+    private static final int NAME_WORD_START = 1;
+    private static final int NAME = 2;
+    private static final int CATEGORY = 3;
+    private static final int DESCRIPTION = 4;
+
+    private final BranchLocal<Index> indexes = BranchLocal.withInitial(Index::new);
+
+    /**
+     * Replace the current branch's index with the given items
+     */
+    public void replace(Collection<CatalogItem> items) {
+        Index index = indexes.get();
+        synchronized (index) {
+            index.entries.clear();
+            index.postings.clear();
+            items.forEach(index::put);
+        }
+    }
+
+    /**
+     * Update the current branch's index with a menu change
+     *
+     * @param changed Items added or changed
+     * @param removed IDs of items deleted or deactivated
+     */
+    public void apply(Collection<CatalogItem> changed, Collection<Long> removed) {
+        Index index = indexes.get();
+        synchronized (index) {
+            removed.forEach(index::remove);
+            changed.forEach(index::put);
+        }
+    }
+
+    /**
+     * Active menu items matching every word of the query
+     *
+     * @param query What the customer typed so far
+     * @param limit How many items to return
+     * @return Best matches first; empty for a blank query
+     */
+    public List<MenuSuggestion> search(String query, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Index index = indexes.get();
+        Set<Long> candidates = null;
+        for (String term : terms) {
+            candidates = index.candidates(term, candidates);
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Scored> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            Entry entry = index.entries.get(id);
+            if (entry == null) {
+                continue;
+            }
+            int score = 0;
+            for (String term : terms) {
+                int termScore = entry.score(term);
+                if (termScore < 0) {
+                    score = -1;
+                    break;
+                }
+                score += termScore;
+            }
+            if (score >= 0) {
+                matches.add(new Scored(entry.item, score));
+            }
+        }
+        matches.sort(Comparator.comparingInt(Scored::score)
+                .thenComparing(scored -> scored.item().name(), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(scored -> scored.item().id()));
+
+        List<MenuSuggestion> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (Scored scored : matches.subList(0, Math.min(limit, matches.size()))) {
+            result.add(MenuSuggestion.of(scored.item()));
+        }
+        return result;
+    }
+
+    /**
+     * Lower-case, NFKC, no Thai tone marks, runs of anything but letters, digits and marks
+     * collapsed to one space
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean space = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (c >= '\u0E47' && c <= '\u0E4C') {
+                // Maitaikhu, the four tone marks and thanthakhat: often left out or mistyped
+                continue;
+            }
+            if (Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK) {
+                if (space && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    static List<String> terms(String query) {
+        String normalized = normalize(query);
+        return normalized.isEmpty() ? List.of() : List.of(normalized.split(" "));
+    }
+
+    // Unigrams and bigrams of each whitespace-separated run
+    static Set<String> grams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (String run : normalized.split(" ")) {
+            for (int i = 0; i < run.length(); i++) {
+                grams.add(run.substring(i, i + 1));
+                if (i + 1 < run.length()) {
+                    grams.add(run.substring(i, i + 2));
+                }
+            }
+        }
+        grams.remove("");
+        return grams;
+    }
+
+    /**
+     * One suggestion: enough to show it and to add it to the cart
+     */
+    public record MenuSuggestion(Long id, String name, String category, double price) {
+
+        static MenuSuggestion of(CatalogItem item) {
+            return new MenuSuggestion(item.id(), item.name(), item.category(), item.price());
+        }
+    }
+
+    private record Scored(CatalogItem item, int score) {}
+
+    private static final class Index {
+        final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+        void put(CatalogItem item) {
+            remove(item.id());
+            Entry entry = new Entry(item);
+            entries.put(item.id(), entry);
+            for (String gram : entry.grams) {
+                postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(item.id());
+            }
+        }
+
+        void remove(Long id) {
+            Entry entry = entries.remove(id);
+            if (entry == null) {
+                return;
+            }
+            for (String gram : entry.grams) {
+                postings.computeIfPresent(gram, (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        // Items that contain every bigram of the term (its one character if that is all there is)
+        Set<Long> candidates(String term, Set<Long> within) {
+            Set<Long> result = within;
+            int step = term.length() == 1 ? 1 : 2;
+            for (int i = 0; i + step <= term.length(); i++) {
+                Set<Long> ids = postings.getOrDefault(term.substring(i, i + step), Set.of());
+                if (result == null) {
+                    result = new HashSet<>(ids);
+                } else {
+                    result.retainAll(ids);
+                }
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class Entry {
+        final CatalogItem item;
+        final String name;
+        final String category;
+        final String description;
+        final Set<String> grams;
+        // Where dictionary word segmentation puts word boundaries in the name
+        final Set<Integer> nameWordStarts = new HashSet<>();
+
+        Entry(CatalogItem item) {
+            this.item = item;
+            this.name = normalize(item.name());
+            this.category = normalize(item.category());
+            this.description = normalize(item.description());
+            this.grams = grams(name + " " + category + " " + description);
+
+            BreakIterator words = BreakIterator.getWordInstance(THAI);
+            words.setText(name);
+            for (int start = words.first(); start != BreakIterator.DONE; start = words.next()) {
+                nameWordStarts.add(start);
+            }
+        }
+
+        // Lower is better; -1 if the term is not in the item
+        int score(String term) {
+            int at = name.indexOf(term);
+            if (at == 0) {
+                return NAME_START;
+            }
+            if (at > 0) {
+                while (at >= 0) {
+                    if (nameWordStarts.contains(at)) {
+                        return NAME_WORD_START;
+                    }
+                    at = name.indexOf(term, at + 1);
+                }
+                return NAME;
+            }
+            if (category.contains(term)) {
+                return CATEGORY;
+            }
+            return description.contains(term) ? DESCRIPTION : -1;
+        }
+    }
+}
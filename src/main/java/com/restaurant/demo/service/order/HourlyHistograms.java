@@ -0,0 +1,63 @@
+package com.restaurant.demo.service.order;
+
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.IntCountsHistogram;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durations over the last 24 clock hours: one HdrHistogram per hour in a ring, reused once
+ * the hour it held is more than a day old. Memory is fixed by the histogram precision
+ * (seconds, two significant digits), not by the number of orders.
+ */
+final class HourlyHistograms {
+
+    static final int HOURS = 24;
+
+    // A ticket open for more than a day is recorded as a day
+    private static final long HIGHEST_SECONDS = TimeUnit.DAYS.toSeconds(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final long[] hours = new long[HOURS];
+    private final AbstractHistogram[] histograms = new AbstractHistogram[HOURS];
+
+    HourlyHistograms() {
+        Arrays.fill(hours, Long.MIN_VALUE);
+        for (int slot = 0; slot < HOURS; slot++) {
+            histograms[slot] = new IntCountsHistogram(HIGHEST_SECONDS, SIGNIFICANT_DIGITS);
+        }
+    }
+
+    /**
+     * @param epochHour Hour the duration ended in (epoch seconds / 3600)
+     * @param seconds Duration
+     */
+    synchronized void record(long epochHour, long seconds) {
+        int slot = (int) Math.floorMod(epochHour, (long) HOURS);
+        if (hours[slot] != epochHour) {
+            if (hours[slot] > epochHour) {
+                // The slot already holds a later hour, so this one has left the window
+                return;
+            }
+            histograms[slot].reset();
+            hours[slot] = epochHour;
+        }
+        histograms[slot].recordValue(Math.min(Math.max(seconds, 0), HIGHEST_SECONDS));
+    }
+
+    /**
+     * @param fromEpochHour First hour to include
+     * @return A new histogram with every duration recorded from that hour on
+     */
+    synchronized Histogram since(long fromEpochHour) {
+        Histogram merged = new Histogram(HIGHEST_SECONDS, SIGNIFICANT_DIGITS);
+        for (int slot = 0; slot < HOURS; slot++) {
+            if (hours[slot] >= fromEpochHour) {
+                merged.add(histograms[slot]);
+            }
+        }
+        return merged;
+    }
+}
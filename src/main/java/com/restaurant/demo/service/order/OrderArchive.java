@@ -0,0 +1,191 @@
+package com.restaurant.demo.service.order;
+
+import com.restaurant.demo.config.branch.BranchLocal;
+import com.restaurant.demo.config.replica.ReplicaContext;
+import com.restaurant.demo.dto.OrderResponseDto;
+import com.restaurant.demo.model.ArchivedOrder;
+import com.restaurant.demo.model.OrderStatus;
+import com.restaurant.demo.repository.ArchivedOrderRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Cold storage for finished orders: orders_archive and order_items_archive.
+ *
+ * Finish and Cancelled orders older than the archive age are moved out of orders /
+ * order_items in chunks (see OrderArchiveJob), keeping their IDs, so the operational
+ * tables only hold recent and active orders. Readers ask {@link #overlaps} whether a date
+ * range can reach archived orders and only then read the archive as well; the newest
+ * archived created_at of each branch is kept in memory so that check costs nothing.
+ */
+@Service
+public class OrderArchive {
+
+    private static final String ORDER_COLUMNS = "id, customer_id, employee_id, status, total_amount, created_at, updated_at";
+    private static final String ITEM_COLUMNS = "id, order_id, item_name, item_price, quantity, total, created_at, updated_at";
+
+    private static final String ORDERS_WITH_ARCHIVE = "(SELECT " + ORDER_COLUMNS + " FROM orders"
+            + " UNION ALL SELECT " + ORDER_COLUMNS + " FROM orders_archive)";
+    private static final String ORDER_ITEMS_WITH_ARCHIVE = "(SELECT " + ITEM_COLUMNS + " FROM order_items"
+            + " UNION ALL SELECT " + ITEM_COLUMNS + " FROM order_items_archive)";
+
+    // Locks the chunk so a concurrent cancel cannot slip in between copy and delete
+    private static final String SELECT_CHUNK_SQL = """
+            SELECT id, created_at FROM orders
+            WHERE created_at < ? AND status IN (?, ?)
+            ORDER BY created_at, id
+            LIMIT ?
+            FOR UPDATE
+            """;
+
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Newest created_at in the branch's archive; null while the archive is empty
+    private final BranchLocal<AtomicReference<LocalDateTime>> newestArchived;
+
+    public OrderArchive(ArchivedOrderRepository archivedOrderRepository,
+                        DataSource dataSource,
+                        PlatformTransactionManager transactionManager) {
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newestArchived = BranchLocal.withInitial(
+                () -> new AtomicReference<>(ReplicaContext.onPrimary(archivedOrderRepository::findNewestCreatedAt)));
+    }
+
+    /**
+     * Whether orders created at or after the given time may be in the archive
+     *
+     * @param from Start of the requested range
+     * @return true if a read of this range has to include the archive tables
+     */
+    public boolean overlaps(LocalDateTime from) {
+        LocalDateTime newest = newestArchived.get().get();
+        return newest != null && !newest.isBefore(from);
+    }
+
+    /**
+     * Table expression for native SQL reading orders created since the given time:
+     * "orders", or orders and orders_archive combined when the range reaches the archive
+     *
+     * @param from Start of the requested range
+     * @return A table name or derived table to use as {@code FROM <expression> o}
+     */
+    public String ordersTable(LocalDateTime from) {
+        return overlaps(from) ? ORDERS_WITH_ARCHIVE : "orders";
+    }
+
+    /**
+     * Same as {@link #ordersTable} for order items
+     *
+     * @param from Start of the requested range
+     * @return A table name or derived table to use as {@code FROM <expression> oi}
+     */
+    public String orderItemsTable(LocalDateTime from) {
+        return overlaps(from) ? ORDER_ITEMS_WITH_ARCHIVE : "order_items";
+    }
+
+    /**
+     * Find an archived order
+     *
+     * @param orderId The order ID
+     * @return The order, or empty if it is not in the archive
+     */
+    public Optional<OrderResponseDto> find(Long orderId) {
+        if (newestArchived.get().get() == null) {
+            return Optional.empty();
+        }
+        return archivedOrderRepository.findWithItemsById(orderId).map(OrderArchive::toDto);
+    }
+
+    /**
+     * Find a customer's archived orders, oldest first
+     *
+     * @param customerId The customer ID
+     * @return The archived orders; empty if none
+     */
+    public List<OrderResponseDto> findByCustomer(Long customerId) {
+        if (newestArchived.get().get() == null) {
+            return Collections.emptyList();
+        }
+        return archivedOrderRepository.findByCustomer_IdOrderById(customerId).stream()
+                .map(OrderArchive::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Move up to {@code limit} of the oldest Finish / Cancelled orders created before the
+     * cutoff, with their items, into the archive tables in one transaction
+     *
+     * @param createdBefore Only orders created before this time are moved
+     * @param limit Maximum number of orders to move
+     * @return Number of orders moved; less than limit once nothing is left to archive
+     */
+    public int archive(LocalDateTime createdBefore, int limit) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Object[]> chunk = jdbcTemplate.query(SELECT_CHUNK_SQL,
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getTimestamp(2)},
+                    Timestamp.valueOf(createdBefore), OrderStatus.FINISH.getValue(),
+                    OrderStatus.CANCELLED.getValue(), limit);
+            if (chunk.isEmpty()) {
+                return 0;
+            }
+
+            Object[] ids = chunk.stream().map(row -> row[0]).toArray();
+            String in = " IN (" + String.join(",", Collections.nCopies(ids.length, "?")) + ")";
+            Object[] archivedAtAndIds = new Object[ids.length + 1];
+            archivedAtAndIds[0] = Timestamp.valueOf(LocalDateTime.now());
+            System.arraycopy(ids, 0, archivedAtAndIds, 1, ids.length);
+
+            jdbcTemplate.update("INSERT INTO orders_archive (" + ORDER_COLUMNS + ", archived_at)"
+                    + " SELECT " + ORDER_COLUMNS + ", ? FROM orders WHERE id" + in, archivedAtAndIds);
+            jdbcTemplate.update("INSERT INTO order_items_archive (" + ITEM_COLUMNS + ")"
+                    + " SELECT " + ITEM_COLUMNS + " FROM order_items WHERE order_id" + in, ids);
+            // Checked-out cart lines still point at their order unless CartRetentionJob removed them
+            jdbcTemplate.update("UPDATE cart_items SET order_id = NULL WHERE order_id" + in, ids);
+            jdbcTemplate.update("DELETE FROM order_items WHERE order_id" + in, ids);
+            jdbcTemplate.update("DELETE FROM orders WHERE id" + in, ids);
+
+            // Advance before commit: a reader seeing the new horizon early only reads the archive needlessly
+            LocalDateTime newest = ((Timestamp) chunk.get(chunk.size() - 1)[1]).toLocalDateTime();
+            newestArchived.get().accumulateAndGet(newest,
+                    (previous, added) -> previous == null || added.isAfter(previous) ? added : previous);
+            return chunk.size();
+        });
+        return moved != null ? moved : 0;
+    }
+
+    private static OrderResponseDto toDto(ArchivedOrder order) {
+        List<OrderResponseDto.OrderItemDto> items = order.getOrderItems().stream()
+                .map(item -> new OrderResponseDto.OrderItemDto(
+                        item.getId(),
+                        item.getItemName(),
+                        item.getItemPrice(),
+                        item.getQuantity(),
+                        item.getTotal()))
+                .collect(Collectors.toList());
+
+        return new OrderResponseDto(
+                order.getId(),
+                order.getCustomer().getId(),
+                order.getCustomer().getName(),
+                items,
+                order.getTotalAmount(),
+                order.getStatus(),
+                order.getCreatedAt(),
+                order.getUpdatedAt());
+    }
+}
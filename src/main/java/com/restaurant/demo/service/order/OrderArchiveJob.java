@@ -0,0 +1,93 @@
+package com.restaurant.demo.service.order;
+
+import com.restaurant.demo.config.branch.BranchContext;
+import com.restaurant.demo.config.branch.Branches;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Moves Finish and Cancelled orders older than app.orders.archive.after into the archive
+ * tables (see OrderArchive), app.orders.archive.chunk-size orders per transaction, so
+ * orders and order_items only hold what the shop is still working with. Each run visits
+ * every branch in turn.
+ */
+@Component
+@ConditionalOnProperty(name = "app.orders.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderArchiveJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveJob.class);
+
+    private final OrderArchive orderArchive;
+    private final OrderCounters orderCounters;
+    private final Branches branches;
+    private final Duration archiveAfter;
+    private final int chunkSize;
+
+    private final Counter archived;
+    private final Timer runTimer;
+
+    public OrderArchiveJob(OrderArchive orderArchive,
+                           OrderCounters orderCounters,
+                           Branches branches,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.orders.archive.after:90d}") Duration archiveAfter,
+                           @Value("${app.orders.archive.chunk-size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("app.orders.archive.chunk-size must be at least 1");
+        }
+        if (archiveAfter.compareTo(Duration.ofDays(1)) < 0) {
+            // Today's orders feed the daily sales report, which only reads the orders table
+            throw new IllegalArgumentException("app.orders.archive.after must be at least 1d");
+        }
+        this.orderArchive = orderArchive;
+        this.orderCounters = orderCounters;
+        this.branches = branches;
+        this.archiveAfter = archiveAfter;
+        this.chunkSize = chunkSize;
+
+        this.archived = Counter.builder("restaurant.orders.archived")
+                .description("Orders moved to the archive tables")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("restaurant.orders.archive")
+                .description("Duration of an order archive run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.orders.archive.initial-delay:5m}",
+               fixedDelayString = "${app.orders.archive.interval:1h}")
+    public void run() {
+        branches.forEach(this::archiveBranch);
+    }
+
+    private void archiveBranch() {
+        long start = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minus(archiveAfter);
+
+        long total = 0;
+        int moved;
+        do {
+            moved = orderArchive.archive(cutoff, chunkSize);
+            archived.increment(moved);
+            total += moved;
+        } while (moved == chunkSize);
+
+        long elapsed = System.nanoTime() - start;
+        runTimer.record(Duration.ofNanos(elapsed));
+        if (total > 0) {
+            // Archived orders no longer count as Finish / Cancelled
+            orderCounters.reconcileBranch();
+            logger.info("Archived {} orders of branch {} created before {} in {} ms",
+                    total, BranchContext.current(), cutoff, elapsed / 1_000_000);
+        }
+    }
+}
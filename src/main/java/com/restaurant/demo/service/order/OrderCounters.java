@@ -0,0 +1,153 @@
+package com.restaurant.demo.service.order;
+
+import com.restaurant.demo.config.branch.BranchContext;
+import com.restaurant.demo.config.branch.BranchLocal;
+import com.restaurant.demo.config.branch.Branches;
+import com.restaurant.demo.config.replica.ReplicaContext;
+import com.restaurant.demo.dto.OrderStats;
+import com.restaurant.demo.model.OrderStatus;
+import com.restaurant.demo.repository.OrderRepository;
+import com.restaurant.demo.service.dataset.DatasetLoadedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of orders in each status, kept in memory so the count endpoints polled by every
+ * tablet never touch the database.
+ *
+ * Seeded per branch from one GROUP BY query at startup and updated when placing or
+ * updating an order commits. Every app.orders.counters.reconcile-interval the counts are
+ * compared with the database again (which also picks up orders moved to the archive) and
+ * corrected if they drifted.
+ */
+@Component
+public class OrderCounters implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderCounters.class);
+
+    private final OrderRepository orderRepository;
+    private final Branches branches;
+    private final BranchLocal<Counts> counts = BranchLocal.withInitial(Counts::new);
+
+    public OrderCounters(OrderRepository orderRepository, Branches branches) {
+        this.orderRepository = orderRepository;
+        this.branches = branches;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        branches.forEach(this::reconcileBranch);
+    }
+
+    /**
+     * Count a newly placed (Pending) order once the surrounding transaction commits
+     */
+    public void orderPlaced() {
+        Counts current = counts.get();
+        AfterCommit.run(() -> current.add(OrderStatus.PENDING, 1));
+    }
+
+    /**
+     * Move an order from one status count to another once the surrounding transaction commits
+     *
+     * @param from The previous status
+     * @param to The new status
+     */
+    public void statusChanged(String from, String to) {
+        OrderStatus fromStatus = OrderStatus.fromValue(from);
+        OrderStatus toStatus = OrderStatus.fromValue(to);
+        Counts current = counts.get();
+        AfterCommit.run(() -> {
+            current.add(fromStatus, -1);
+            current.add(toStatus, 1);
+        });
+    }
+
+    /**
+     * @return Orders currently in the status, on the current branch
+     */
+    public long count(OrderStatus status) {
+        return counts.get().get(status);
+    }
+
+    /**
+     * @return Orders per status, on the current branch
+     */
+    public OrderStats stats() {
+        Counts current = counts.get();
+        Map<OrderStatus, Long> values = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            values.put(status, current.get(status));
+        }
+        return OrderStats.of(values);
+    }
+
+    @Scheduled(initialDelayString = "${app.orders.counters.reconcile-interval:5m}",
+               fixedDelayString = "${app.orders.counters.reconcile-interval:5m}")
+    public void reconcile() {
+        branches.forEach(this::reconcileBranch);
+    }
+
+    /**
+     * Compare the current branch's counts with the database and correct any drift, e.g. right
+     * after orders were added or removed without going through OrderService
+     */
+    @EventListener(DatasetLoadedEvent.class)
+    public void reconcileBranch() {
+        Counts current = counts.get();
+        long before = current.version.get();
+        List<Object[]> rows = ReplicaContext.onPrimary(orderRepository::countGroupByStatus);
+        Map<OrderStatus, Long> actual = new EnumMap<>(OrderStatus.class);
+        for (Object[] row : rows) {
+            actual.merge(OrderStatus.fromValue((String) row[0]), ((Number) row[1]).longValue(), Long::sum);
+        }
+
+        Map<OrderStatus, Long> drift = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            long delta = actual.getOrDefault(status, 0L) - current.get(status);
+            if (delta != 0) {
+                drift.put(status, delta);
+            }
+        }
+        if (drift.isEmpty()) {
+            return;
+        }
+        if (current.version.get() != before) {
+            // An order changed while counting; its commit may or may not be in the query, so try next time
+            return;
+        }
+        drift.forEach(current::add);
+        logger.info("Order counters for branch {} corrected by {}", BranchContext.current(), drift);
+    }
+
+    private static final class Counts {
+        final Map<OrderStatus, LongAdder> byStatus = new EnumMap<>(OrderStatus.class);
+        // Bumped before every change, so a reconcile can tell the counts moved under it
+        final AtomicLong version = new AtomicLong();
+
+        Counts() {
+            for (OrderStatus status : OrderStatus.values()) {
+                byStatus.put(status, new LongAdder());
+            }
+        }
+
+        void add(OrderStatus status, long delta) {
+            version.incrementAndGet();
+            byStatus.get(status).add(delta);
+        }
+
+        long get(OrderStatus status) {
+            return byStatus.get(status).sum();
+        }
+    }
+}
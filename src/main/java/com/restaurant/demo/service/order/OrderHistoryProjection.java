@@ -0,0 +1,183 @@
+package com.restaurant.demo.service.order;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.demo.dto.OrderResponseDto;
+import com.restaurant.demo.model.Customer;
+import com.restaurant.demo.model.CustomerOrderHistory;
+import com.restaurant.demo.repository.CustomerOrderHistoryRepository;
+import com.restaurant.demo.service.dataset.DatasetLoadedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Maintains the per-customer order history read model (customer_order_history).
+ *
+ * The orders tables stay the source of truth. A history row is built lazily the first
+ * time a customer's history is read and is then patched after every order placement or
+ * status change commits. Both paths lock the customer row, so a rebuild and a concurrent
+ * placement cannot lose an order. If a patch fails the row is dropped and the next
+ * read rebuilds it.
+ */
+@Service
+public class OrderHistoryProjection {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderHistoryProjection.class);
+
+    private static final TypeReference<List<OrderResponseDto>> DOCUMENT_TYPE = new TypeReference<>() {};
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final CustomerOrderHistoryRepository historyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate requiresNew;
+
+    public OrderHistoryProjection(CustomerOrderHistoryRepository historyRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.historyRepository = historyRepository;
+        this.objectMapper = objectMapper;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Read a customer's order history from the projection
+     *
+     * @param customerId The customer ID
+     * @return The orders in placement order, or empty if the projection has not been built yet
+     */
+    public Optional<List<OrderResponseDto>> find(Long customerId) {
+        Optional<CustomerOrderHistory> history = historyRepository.findById(customerId);
+        if (history.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(readDocument(history.get().getDocument()));
+        } catch (IllegalStateException e) {
+            logger.warn("Unreadable order history for customer ID: {} - rebuilding", customerId);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Build (or replace) a customer's history row from the source tables
+     *
+     * @param customerId The customer ID
+     * @param loader Loads the customer's orders; runs while the customer row is locked
+     * @return The orders written to the projection
+     */
+    public List<OrderResponseDto> rebuild(Long customerId, Supplier<List<OrderResponseDto>> loader) {
+        return requiresNew.execute(status -> {
+            lockCustomer(customerId);
+            List<OrderResponseDto> orders = loader.get();
+
+            CustomerOrderHistory history = historyRepository.findById(customerId)
+                    .orElseGet(() -> new CustomerOrderHistory(customerId));
+            writeDocument(history, orders);
+            historyRepository.save(history);
+            return orders;
+        });
+    }
+
+    /**
+     * Insert or replace an order in its customer's history once the surrounding
+     * transaction commits, so a rolled-back placement never shows up
+     *
+     * @param order The order as returned to the client
+     */
+    public void recordOrder(OrderResponseDto order) {
+        AfterCommit.run(() -> apply(order));
+    }
+
+    /**
+     * Drop every history row of the current branch, e.g. after orders were loaded straight
+     * into the tables; each customer's row is rebuilt on their next history read
+     */
+    @EventListener(DatasetLoadedEvent.class)
+    public void clear() {
+        requiresNew.executeWithoutResult(status -> historyRepository.deleteAllInBatch());
+    }
+
+    private void apply(OrderResponseDto order) {
+        Long customerId = order.getCustomerId();
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                lockCustomer(customerId);
+                // No row yet: the first history read will build it from the orders table
+                historyRepository.findById(customerId).ifPresent(history -> {
+                    List<OrderResponseDto> orders = new ArrayList<>(readDocument(history.getDocument()));
+                    int index = indexOf(orders, order.getOrderId());
+                    if (index >= 0) {
+                        orders.set(index, order);
+                    } else {
+                        orders.add(order);
+                    }
+                    writeDocument(history, orders);
+                    historyRepository.save(history);
+                });
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Failed to update order history for customer ID: {} - dropping projection row: {}",
+                    customerId, e.getMessage());
+            evict(customerId);
+        }
+    }
+
+    private void evict(Long customerId) {
+        try {
+            requiresNew.executeWithoutResult(status -> historyRepository.deleteById(customerId));
+        } catch (RuntimeException e) {
+            logger.error("Failed to evict order history for customer ID: {}", customerId, e);
+        }
+    }
+
+    private void lockCustomer(Long customerId) {
+        Customer customer = entityManager.find(Customer.class, customerId, LockModeType.PESSIMISTIC_WRITE);
+        if (customer == null) {
+            throw new RuntimeException("Customer not found with ID: " + customerId);
+        }
+    }
+
+    private static int indexOf(List<OrderResponseDto> orders, Long orderId) {
+        for (int i = 0; i < orders.size(); i++) {
+            if (Objects.equals(orders.get(i).getOrderId(), orderId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private List<OrderResponseDto> readDocument(String document) {
+        try {
+            return objectMapper.readValue(document, DOCUMENT_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt order history document", e);
+        }
+    }
+
+    private void writeDocument(CustomerOrderHistory history, List<OrderResponseDto> orders) {
+        try {
+            history.setDocument(objectMapper.writeValueAsString(orders));
+            history.setOrderCount(orders.size());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize order history", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.restaurant.demo.service.order;
+
+import com.restaurant.demo.model.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business counters for the order lifecycle.
+ * Counts are recorded only once the surrounding transaction commits.
+ */
+@Component
+public class OrderMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter ordersPlaced;
+
+    public OrderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.ordersPlaced = Counter.builder("restaurant.orders.placed")
+                .description("Orders placed by customers")
+                .register(registry);
+    }
+
+    /**
+     * Count a newly placed order
+     */
+    public void orderPlaced() {
+        AfterCommit.run(ordersPlaced::increment);
+    }
+
+    /**
+     * Count a status transition
+     *
+     * @param from The previous status
+     * @param to The new status
+     */
+    public void statusChanged(String from, String to) {
+        // Canonical spelling, so tag values are bounded by OrderStatus however the request spelled them
+        Counter counter = Counter.builder("restaurant.orders.transitions")
+                .description("Order status transitions")
+                .tag("from", OrderStatus.fromValue(from).getValue())
+                .tag("to", OrderStatus.fromValue(to).getValue())
+                .register(registry);
+        AfterCommit.run(counter::increment);
+    }
+}
@@ -0,0 +1,122 @@
+package com.restaurant.demo.service.order;
+
+import com.restaurant.demo.config.branch.BranchContext;
+import com.restaurant.demo.config.branch.BranchLocal;
+import com.restaurant.demo.config.branch.Branches;
+import com.restaurant.demo.config.replica.ReplicaContext;
+import com.restaurant.demo.model.OrderStatus;
+import com.restaurant.demo.model.OrderStatusChange;
+import com.restaurant.demo.repository.OrderStatusChangeRepository;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order status transitions: each one is stored in order_status_history and, once committed,
+ * fed into per-hour histograms of how long orders waited in Pending (queue time) and spent
+ * In Progress (prep time). The dashboard percentiles come from those histograms, never from
+ * scanning the history table; on startup the last 24 hours are replayed through the
+ * changed_at index.
+ */
+@Component
+public class OrderStatusHistory implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusHistory.class);
+
+    private static final List<String> TIMED_STATUSES =
+            List.of(OrderStatus.PENDING.getValue(), OrderStatus.IN_PROGRESS.getValue());
+
+    private final OrderStatusChangeRepository repository;
+    private final Branches branches;
+    private final BranchLocal<Map<String, HourlyHistograms>> timings =
+            BranchLocal.withInitial(OrderStatusHistory::emptyTimings);
+
+    public OrderStatusHistory(OrderStatusChangeRepository repository, Branches branches) {
+        this.repository = repository;
+        this.branches = branches;
+    }
+
+    /**
+     * Replay the last day of transitions for every branch before requests arrive
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        branches.forEach(this::warm);
+    }
+
+    private void warm() {
+        LocalDateTime since = LocalDateTime.now().minusHours(HourlyHistograms.HOURS);
+        List<OrderStatusChange> changes = ReplicaContext.onPrimary(() -> repository.findByChangedAtGreaterThanEqual(since));
+        changes.forEach(change -> observe(change.getFromStatus(), change.getEnteredAt(), change.getChangedAt()));
+        logger.info("Status timings for branch {} warmed with {} transitions", BranchContext.current(), changes.size());
+    }
+
+    /**
+     * Record a transition as part of the caller's transaction
+     *
+     * @param orderId The order
+     * @param from Status the order leaves
+     * @param to Status the order enters
+     * @param enteredAt When the order entered from
+     * @param changedAt When it left
+     */
+    public void record(Long orderId, String from, String to, LocalDateTime enteredAt, LocalDateTime changedAt) {
+        // Clients may send any casing; store and bucket the canonical value
+        String fromStatus = OrderStatus.fromValue(from).getValue();
+        String toStatus = OrderStatus.fromValue(to).getValue();
+        repository.save(new OrderStatusChange(orderId, fromStatus, toStatus, enteredAt, changedAt));
+        AfterCommit.run(() -> observe(fromStatus, enteredAt, changedAt));
+    }
+
+    /**
+     * Live queue (Pending) and prep (In Progress) times for the current branch
+     *
+     * @param hours Window in clock hours, 1 to 24; 1 is the current hour so far
+     * @return One entry per timed status
+     */
+    public List<StatusTiming> timings(int hours) {
+        if (hours < 1 || hours > HourlyHistograms.HOURS) {
+            throw new IllegalArgumentException("hours must be between 1 and " + HourlyHistograms.HOURS);
+        }
+        long fromHour = epochHour(LocalDateTime.now()) - hours + 1;
+        List<StatusTiming> result = new ArrayList<>();
+        timings.get().forEach((status, histograms) -> {
+            Histogram window = histograms.since(fromHour);
+            result.add(new StatusTiming(status, window.getTotalCount(),
+                    window.getValueAtPercentile(50), window.getValueAtPercentile(95)));
+        });
+        return result;
+    }
+
+    private void observe(String status, LocalDateTime enteredAt, LocalDateTime changedAt) {
+        HourlyHistograms histograms = timings.get().get(status);
+        if (histograms != null) {
+            histograms.record(epochHour(changedAt), Duration.between(enteredAt, changedAt).toSeconds());
+        }
+    }
+
+    private static long epochHour(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond() / 3600;
+    }
+
+    private static Map<String, HourlyHistograms> emptyTimings() {
+        Map<String, HourlyHistograms> map = new LinkedHashMap<>();
+        TIMED_STATUSES.forEach(status -> map.put(status, new HourlyHistograms()));
+        return map;
+    }
+
+    /**
+     * Percentiles of the time orders spent in one status; zero when there were no transitions
+     */
+    public record StatusTiming(String status, long count, long p50Seconds, long p95Seconds) {}
+}
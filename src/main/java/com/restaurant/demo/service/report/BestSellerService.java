@@ -0,0 +1,233 @@
+package com.restaurant.demo.service.report;
+
+import com.restaurant.demo.config.branch.BranchContext;
+import com.restaurant.demo.config.branch.BranchLocal;
+import com.restaurant.demo.config.branch.Branches;
+import com.restaurant.demo.config.replica.ReplicaContext;
+import com.restaurant.demo.dto.ItemSales;
+import com.restaurant.demo.model.ItemDailySales;
+import com.restaurant.demo.model.Order;
+import com.restaurant.demo.model.OrderItem;
+import com.restaurant.demo.model.OrderStatus;
+import com.restaurant.demo.repository.ItemDailySalesRepository;
+import com.restaurant.demo.service.dataset.DatasetLoadedEvent;
+import com.restaurant.demo.service.order.AfterCommit;
+import com.restaurant.demo.service.order.OrderArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Best-selling menu items for any date range without scanning order_items.
+ *
+ * When an order finishes, its quantities are added to item_daily_sales (one row per item
+ * and day, in the same transaction), and taken off again if a finished order is cancelled.
+ * A range is answered by summing those daily rows, plus the current day's counts, which are
+ * also kept in memory; the top K come out of a bounded heap.
+ */
+@Service
+public class BestSellerService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(BestSellerService.class);
+
+    // Highest quantity first, then by name so equal counts come out in a stable order
+    private static final Comparator<ItemSales> RANKING = Comparator.comparingLong(ItemSales::quantity).reversed()
+            .thenComparing(ItemSales::itemName);
+
+    private static final String REBUILD_SQL = """
+            INSERT INTO item_daily_sales (sale_date, item_name, quantity)
+            SELECT CAST(o.created_at AS DATE), oi.item_name, SUM(oi.quantity)
+            FROM %s oi
+            JOIN %s o ON oi.order_id = o.id
+            WHERE UPPER(o.status) = 'FINISH'
+            GROUP BY CAST(o.created_at AS DATE), oi.item_name
+            """;
+
+    private final ItemDailySalesRepository repository;
+    private final OrderArchive orderArchive;
+    private final Branches branches;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BranchLocal<AtomicReference<Day>> today = BranchLocal.withInitial(AtomicReference::new);
+
+    public BestSellerService(ItemDailySalesRepository repository,
+                             OrderArchive orderArchive,
+                             Branches branches,
+                             DataSource dataSource,
+                             PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.orderArchive = orderArchive;
+        this.branches = branches;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Load each branch's counts for today, building item_daily_sales from the orders first
+     * if it is still empty (first start after the table was added)
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        branches.forEach(() -> {
+            boolean empty = ReplicaContext.onPrimary(() -> repository.count() == 0);
+            if (empty) {
+                rebuild();
+            } else {
+                loadToday();
+            }
+        });
+    }
+
+    /**
+     * Update the daily counts for a status change, as part of the caller's transaction
+     *
+     * @param order The order, with its items
+     * @param from Previous status
+     * @param to New status
+     */
+    public void statusChanged(Order order, String from, String to) {
+        int sign;
+        if (OrderStatus.FINISH.getValue().equalsIgnoreCase(to)) {
+            sign = 1;
+        } else if (OrderStatus.FINISH.getValue().equalsIgnoreCase(from)) {
+            sign = -1;
+        } else {
+            return;
+        }
+        LocalDate day = order.getCreatedAt().toLocalDate();
+        Map<String, Long> quantities = new HashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            quantities.merge(item.getItemName(), (long) item.getQuantity() * sign, Long::sum);
+        }
+        quantities.forEach((itemName, quantity) -> repository.addQuantity(day, itemName, quantity));
+        AfterCommit.run(() -> currentDay().add(day, quantities));
+    }
+
+    /**
+     * Best sellers over a range of days
+     *
+     * @param from First day, inclusive
+     * @param to Last day, inclusive
+     * @param limit How many items to return
+     * @return Up to limit items, highest quantity first
+     */
+    public List<ItemSales> top(LocalDate from, LocalDate to, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        PriorityQueue<ItemSales> heap = new PriorityQueue<>(RANKING.reversed());
+        itemsSold(from, to).forEach((itemName, quantity) -> {
+            if (quantity > 0) {
+                heap.offer(new ItemSales(itemName, quantity));
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+        });
+        List<ItemSales> result = new ArrayList<>(heap);
+        result.sort(RANKING);
+        return result;
+    }
+
+    /**
+     * Quantity sold per item over a range of days
+     *
+     * @param from First day, inclusive
+     * @param to Last day, inclusive
+     * @return Item name to quantity
+     */
+    public Map<String, Long> itemsSold(LocalDate from, LocalDate to) {
+        Map<String, Long> totals = new HashMap<>();
+        if (from.isAfter(to)) {
+            return totals;
+        }
+        Day day = currentDay();
+        LocalDate lastStoredDay = to;
+        // Today comes from memory; orders are never dated after today
+        if (!from.isAfter(day.date) && !to.isBefore(day.date)) {
+            day.counts.forEach((itemName, quantity) -> totals.merge(itemName, quantity.sum(), Long::sum));
+            lastStoredDay = day.date.minusDays(1);
+        }
+        if (!from.isAfter(lastStoredDay)) {
+            for (ItemSales sales : repository.sumByItem(from, lastStoredDay)) {
+                totals.merge(sales.itemName(), sales.quantity(), Long::sum);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Recompute the current branch's item_daily_sales from the finished orders (archive included),
+     * e.g. after orders were loaded straight into the tables
+     */
+    @EventListener(DatasetLoadedEvent.class)
+    public void rebuild() {
+        String sql = REBUILD_SQL.formatted(
+                orderArchive.orderItemsTable(LocalDate.EPOCH.atStartOfDay()),
+                orderArchive.ordersTable(LocalDate.EPOCH.atStartOfDay()));
+        int rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM item_daily_sales");
+            return jdbcTemplate.update(sql);
+        });
+        logger.info("Item daily sales for branch {} rebuilt: {} rows", BranchContext.current(), rows);
+        loadToday();
+    }
+
+    private void loadToday() {
+        LocalDate date = LocalDate.now();
+        Day day = new Day(date);
+        for (ItemDailySales sales : ReplicaContext.onPrimary(() -> repository.findBySaleDate(date))) {
+            day.counts.computeIfAbsent(sales.getItemName(), name -> new LongAdder()).add(sales.getQuantity());
+        }
+        today.get().set(day);
+    }
+
+    // Today's counts, starting a new empty day at midnight (earlier days are all in the table)
+    private Day currentDay() {
+        AtomicReference<Day> reference = today.get();
+        LocalDate date = LocalDate.now();
+        Day day = reference.get();
+        while (day == null || day.date.isBefore(date)) {
+            Day next = new Day(date);
+            if (reference.compareAndSet(day, next)) {
+                return next;
+            }
+            day = reference.get();
+        }
+        return day;
+    }
+
+    private static final class Day {
+        final LocalDate date;
+        final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+        Day(LocalDate date) {
+            this.date = date;
+        }
+
+        void add(LocalDate saleDate, Map<String, Long> quantities) {
+            if (saleDate.equals(date)) {
+                quantities.forEach((itemName, quantity) ->
+                        counts.computeIfAbsent(itemName, name -> new LongAdder()).add(quantity));
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.restaurant.demo.service.report;
+
+import com.restaurant.demo.config.branch.BranchLocal;
+import com.restaurant.demo.config.singleflight.SingleFlightGroup;
+import com.restaurant.demo.dto.ReportSummary;
+import com.restaurant.demo.model.OrderStatus;
+import com.restaurant.demo.model.ReportSnapshot;
+import com.restaurant.demo.repository.ReportSnapshotRepository;
+import com.restaurant.demo.service.ReportService;
+import com.restaurant.demo.service.dataset.DatasetLoadedEvent;
+import com.restaurant.demo.service.impl.ReportServiceImpl;
+import com.restaurant.demo.service.order.AfterCommit;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches ReportServiceImpl's monthly reports.
+ *
+ * A month that is over (or a year, for the whole-year report) only changes if one of its
+ * orders is finished or un-finished late, so its totals are kept for good: in memory and in
+ * report_snapshots, to survive restarts. Such late changes evict the month and its year.
+ * The current month and year are recomputed at most every app.reports.cache.current-ttl.
+ * The monthly sales chart is put together from the cached totals of each month, so a month
+ * closing does not leave older reports of the same year with a stale chart.
+ *
+ * Concurrent requests for the same uncached period wait for one computation (SingleFlightGroup).
+ * Every late change also bumps its periods' generation; a computation that saw the generation
+ * move while it was reading may have read the old totals, so it keeps nothing.
+ */
+@Service
+@Primary
+public class CachingReportService implements ReportService {
+
+    private final ReportServiceImpl delegate;
+    private final ReportSnapshotRepository snapshotRepository;
+    private final long currentTtlNanos;
+    private final SingleFlightGroup flights;
+
+    private final BranchLocal<Map<Period, ReportSummary>> closed = BranchLocal.withInitial(ConcurrentHashMap::new);
+    private final BranchLocal<Map<Period, Fresh>> current = BranchLocal.withInitial(ConcurrentHashMap::new);
+    private final BranchLocal<Map<Period, Long>> generations = BranchLocal.withInitial(ConcurrentHashMap::new);
+
+    public CachingReportService(ReportServiceImpl delegate,
+                                ReportSnapshotRepository snapshotRepository,
+                                MeterRegistry registry,
+                                @Value("${app.reports.cache.current-ttl:30s}") Duration currentTtl) {
+        this.delegate = delegate;
+        this.snapshotRepository = snapshotRepository;
+        this.currentTtlNanos = currentTtl.toNanos();
+        this.flights = new SingleFlightGroup("reports.monthly", Duration.ZERO, registry);
+    }
+
+    @Override
+    public ReportSummary getMonthlyReport(Integer month, Integer year) {
+        LocalDate today = LocalDate.now();
+        if (year == null) {
+            year = today.getYear();
+        }
+        int m = month == null ? 0 : month;
+        if (m < 0 || m > 12) {
+            throw new IllegalArgumentException("Invalid month: " + month);
+        }
+
+        ReportSummary totals = totals(new Period(year, m), today);
+        return new ReportSummary(totals.getTotalRevenue(), totals.getTotalOrders(), totals.getTopMenu(),
+                totals.getTopCount(), monthlySales(year, today));
+    }
+
+    @Override
+    public Map<String, Long> getItemsSold(Integer month, Integer year) {
+        // Already served from the per-day item counts
+        return delegate.getItemsSold(month, year);
+    }
+
+    /**
+     * Evict the cached reports an order's status change affects, if its month is already over.
+     * Call inside the transaction that changes the status: the snapshot rows go with it.
+     *
+     * @param placedAt When the order was placed (the reports count it in that month)
+     * @param from Previous status
+     * @param to New status
+     */
+    public void statusChanged(LocalDateTime placedAt, String from, String to) {
+        String finish = OrderStatus.FINISH.getValue();
+        if (!finish.equalsIgnoreCase(from) && !finish.equalsIgnoreCase(to)) {
+            return;
+        }
+        Period month = new Period(placedAt.getYear(), placedAt.getMonthValue());
+        if (!month.isClosed(LocalDate.now())) {
+            // Current period: picked up when its entry expires
+            return;
+        }
+        Period year = new Period(month.year(), 0);
+        // Once now, for computations that would store before the commit, and once after it,
+        // for those that started in between and read the totals from before the commit
+        bump(month, year);
+        snapshotRepository.deletePeriods(month.year(), List.of(month.month(), year.month()));
+        AfterCommit.run(() -> {
+            bump(month, year);
+            closed.get().remove(month);
+            closed.get().remove(year);
+        });
+    }
+
+    /**
+     * Drop every cached report of the current branch, e.g. after orders were loaded straight into the tables
+     */
+    @EventListener(DatasetLoadedEvent.class)
+    public void clear() {
+        snapshotRepository.deleteAllInBatch();
+        closed.get().clear();
+        current.get().clear();
+    }
+
+    private ReportSummary totals(Period period, LocalDate today) {
+        return period.isClosed(today) ? closedTotals(period) : currentTotals(period);
+    }
+
+    private ReportSummary closedTotals(Period period) {
+        ReportSummary cached = closed.get().get(period);
+        if (cached != null) {
+            return cached;
+        }
+        return flights.execute(period, () -> {
+            long generation = generation(period);
+            Optional<ReportSnapshot> stored = snapshotRepository.findByReportYearAndReportMonth(period.year(), period.month());
+            ReportSummary summary = stored.map(ReportSnapshot::toSummary).orElseGet(() -> compute(period));
+            if (generation(period) != generation) {
+                // A late status change came in meanwhile; the next request reads it again
+                return summary;
+            }
+            if (stored.isEmpty()) {
+                persist(period, summary);
+            }
+            closed.get().put(period, summary);
+            return summary;
+        });
+    }
+
+    private ReportSummary currentTotals(Period period) {
+        Fresh cached = current.get().get(period);
+        if (cached != null && cached.expiresAt() - System.nanoTime() > 0) {
+            return cached.summary();
+        }
+        return flights.execute(period, () -> {
+            ReportSummary summary = compute(period);
+            current.get().put(period, new Fresh(summary, System.nanoTime() + currentTtlNanos));
+            return summary;
+        });
+    }
+
+    // Each month's revenue from its own (cached) totals; months still to come are zero
+    private List<BigDecimal> monthlySales(int year, LocalDate today) {
+        YearMonth thisMonth = YearMonth.from(today);
+        List<BigDecimal> monthlySales = new ArrayList<>();
+        for (int m = 1; m <= 12; m++) {
+            YearMonth month = YearMonth.of(year, m);
+            monthlySales.add(month.isAfter(thisMonth)
+                    ? BigDecimal.ZERO
+                    : totals(new Period(year, m), today).getTotalRevenue());
+        }
+        return monthlySales;
+    }
+
+    private ReportSummary compute(Period period) {
+        return delegate.getMonthlyReport(period.month(), period.year());
+    }
+
+    private void persist(Period period, ReportSummary summary) {
+        try {
+            snapshotRepository.save(new ReportSnapshot(period.year(), period.month(), summary));
+        } catch (DataIntegrityViolationException e) {
+            // Stored concurrently by another instance; same totals
+        }
+    }
+
+    private long generation(Period period) {
+        return generations.get().getOrDefault(period, 0L);
+    }
+
+    private void bump(Period... periods) {
+        for (Period period : periods) {
+            generations.get().merge(period, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * @param month 1-12, or 0 for the whole year
+     */
+    private record Period(int year, int month) {
+
+        boolean isClosed(LocalDate today) {
+            if (month == 0) {
+                return year < today.getYear();
+            }
+            return YearMonth.of(year, month).isBefore(YearMonth.from(today));
+        }
+    }
+
+    private record Fresh(ReportSummary summary, long expiresAt) {}
+}
@@ -0,0 +1,115 @@
+package com.restaurant.demo.service.report;
+
+import com.restaurant.demo.config.branch.BranchContext;
+import com.restaurant.demo.config.branch.Branches;
+import com.restaurant.demo.dto.ReportSummary;
+import com.restaurant.demo.service.ReportService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monthly report over every branch.
+ *
+ * Each branch is queried on its own worker thread, bound to that branch, so the branch
+ * databases are read in parallel and no transaction or persistence context is shared
+ * between them. Totals are added up; the top menu item is picked from the summed
+ * per-item quantities rather than from each branch's own top item.
+ */
+@Service
+public class CrossBranchReportService implements DisposableBean {
+
+    private final ReportService reportService;
+    private final Branches branches;
+    private final ExecutorService workers;
+
+    public CrossBranchReportService(ReportService reportService, Branches branches) {
+        this.reportService = reportService;
+        this.branches = branches;
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(branches.ids().size(), runnable -> {
+            Thread thread = new Thread(runnable, "branch-report-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Monthly report summed over all branches
+     *
+     * @param month Month 1-12, or null / 0 for the whole year
+     * @param year The year
+     * @return Combined summary
+     */
+    @Timed("restaurant.reports.monthly.branches")
+    public ReportSummary getMonthlyReport(Integer month, Integer year) {
+        List<Future<BranchReport>> futures = new ArrayList<>();
+        for (String branch : branches.ids()) {
+            futures.add(workers.submit(() -> BranchContext.call(branch, () -> new BranchReport(
+                    reportService.getMonthlyReport(month, year),
+                    reportService.getItemsSold(month, year)))));
+        }
+
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        long totalOrders = 0;
+        List<BigDecimal> monthlySales = new ArrayList<>();
+        Map<String, Long> itemsSold = new HashMap<>();
+        for (int i = 0; i < futures.size(); i++) {
+            BranchReport report = await(futures.get(i), branches.ids().get(i));
+            totalRevenue = totalRevenue.add(report.summary().getTotalRevenue());
+            totalOrders += report.summary().getTotalOrders();
+            List<BigDecimal> branchSales = report.summary().getMonthlySales();
+            for (int m = 0; m < branchSales.size(); m++) {
+                if (m < monthlySales.size()) {
+                    monthlySales.set(m, monthlySales.get(m).add(branchSales.get(m)));
+                } else {
+                    monthlySales.add(branchSales.get(m));
+                }
+            }
+            report.itemsSold().forEach((item, quantity) -> itemsSold.merge(item, quantity, Long::sum));
+        }
+
+        String topMenu = "-";
+        long topCount = 0;
+        for (Map.Entry<String, Long> entry : itemsSold.entrySet()) {
+            if (entry.getValue() > topCount
+                    || (entry.getValue() == topCount && topCount > 0 && entry.getKey().compareTo(topMenu) < 0)) {
+                topMenu = entry.getKey();
+                topCount = entry.getValue();
+            }
+        }
+        return new ReportSummary(totalRevenue, totalOrders, topMenu, topCount, monthlySales);
+    }
+
+    private static BranchReport await(Future<BranchReport> future, String branch) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading branch " + branch, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Report failed for branch " + branch, e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+
+    private record BranchReport(ReportSummary summary, Map<String, Long> itemsSold) {}
+}
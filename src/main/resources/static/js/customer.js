@@ -5,22 +5,82 @@ document.addEventListener("DOMContentLoaded", () => {
     setupCustomerDashboard();
 });
 
+const MENU_CACHE_KEY = "menuCatalog";
+
+// โหลดเมนูจาก catalog สำหรับลูกค้า (เฉพาะเมนูที่ active แบ่งตามหมวดหมู่)
+// เก็บ catalog ไว้ใน localStorage แล้วขอเฉพาะส่วนที่เปลี่ยนไปด้วย ?sinceVersion=
 async function fetchMenuItems() {
+    let cached = null;
+    try {
+        cached = JSON.parse(localStorage.getItem(MENU_CACHE_KEY));
+    } catch (e) {
+        cached = null;
+    }
+
     try {
-        // ใช้ Endpoint เดียวกันหรือคล้ายกับที่ Manager ใช้ แต่ควรเป็น Endpoint สำหรับ Customer
-        // ซึ่งโดยปกติจะดึงเฉพาะเมนูที่ 'active' (พร้อมจำหน่าย) เท่านั้น
-        const response = await fetch("/api/manager/menu-items"); // สมมติว่ามี API สำหรับลูกค้า
+        const url = cached ? `/api/menuItems/catalog?sinceVersion=${cached.version}` : "/api/menuItems/catalog";
+        const response = await fetch(url);
 
+        if (response.status === 304 && cached) {
+            return Object.values(cached.items);
+        }
         if (!response.ok) {
             throw new Error("ไม่สามารถโหลดเมนูอาหารจากเซิร์ฟเวอร์ได้");
         }
-        return await response.json();
+
+        const catalog = await response.json();
+        const items = catalog.full || !cached ? {} : cached.items;
+        (catalog.removed || []).forEach(id => delete items[id]);
+        catalog.categories.forEach(category => {
+            category.items.forEach(item => { items[item.id] = { ...item, category: category.name }; });
+        });
+
+        try {
+            localStorage.setItem(MENU_CACHE_KEY, JSON.stringify({ version: catalog.version, items }));
+        } catch (e) {
+            // พื้นที่เก็บข้อมูลเต็ม: ใช้งานต่อได้ เพียงแต่ครั้งหน้าจะโหลดเมนูเต็ม
+        }
+        return Object.values(items);
     } catch (error) {
         console.error("Error fetching menu items:", error);
-        return []; // ส่งกลับอาเรย์ว่างถ้าเกิดข้อผิดพลาด
+        return cached ? Object.values(cached.items) : []; // ใช้เมนูที่เก็บไว้ ถ้ามี
     }
 }
 
+// ค้นหาเมนู: เซิร์ฟเวอร์ค้นจาก index ในหน่วยความจำ (รองรับภาษาไทย) แล้วแสดงเฉพาะการ์ดที่ตรง ตามลำดับความใกล้เคียง
+function setupMenuSearch(menuGrid) {
+    const input = document.getElementById("menuSearch");
+    if (!input) return;
+    const cards = Array.from(menuGrid.children).filter(card => card.dataset.id);
+    let timer = null;
+    let latest = 0;
+
+    input.addEventListener("input", () => {
+        clearTimeout(timer);
+        timer = setTimeout(async () => {
+            const query = input.value.trim();
+            const request = ++latest;
+            if (!query) {
+                cards.forEach(card => { card.classList.remove("hidden"); menuGrid.appendChild(card); });
+                return;
+            }
+            try {
+                const response = await fetch(`/api/menuItems/search?q=${encodeURIComponent(query)}&limit=50`);
+                if (!response.ok) return;
+                const matches = await response.json();
+                if (request !== latest) return; // มีคำค้นใหม่กว่าแล้ว
+                const rank = new Map(matches.map((item, i) => [String(item.id), i]));
+                cards.forEach(card => card.classList.toggle("hidden", !rank.has(card.dataset.id)));
+                cards.filter(card => rank.has(card.dataset.id))
+                    .sort((a, b) => rank.get(a.dataset.id) - rank.get(b.dataset.id))
+                    .forEach(card => menuGrid.appendChild(card));
+            } catch (error) {
+                console.error("Error searching menu:", error);
+            }
+        }, 150);
+    });
+}
+
 export async function setupCustomerDashboard() {
     // Read customer ID from DOM (set by Thymeleaf server-side rendering)
     // Server-side session validation already happened in PageController
@@ -56,10 +116,12 @@ export async function setupCustomerDashboard() {
         menuGrid.innerHTML = '<p class="text-center text-gray-500 col-span-full">ยังไม่มีเมนูอาหาร</p>';
     }
 
+    // catalog มีเฉพาะเมนูที่ active; เรียงตามหมวดหมู่แล้วตามชื่อ
+    menuItems.sort((a, b) => a.category.localeCompare(b.category) || a.name.localeCompare(b.name));
     menuItems.forEach(item => {
-        if (!item.active) return; // ข้ามรายการที่ไม่ active
         const div = document.createElement("div");
         div.className = "bg-white p-6 rounded-xl shadow-lg";
+        div.dataset.id = item.id;
         div.innerHTML = `
             <h3 class="text-xl font-semibold mb-2">${item.name}</h3>
             <p class="text-gray-600">${item.description}</p>
@@ -69,6 +131,8 @@ export async function setupCustomerDashboard() {
         menuGrid.appendChild(div);
     });
 
+    setupMenuSearch(menuGrid);
+
     // Event ใส่ตะกร้า
     document.querySelectorAll(".add-to-cart").forEach(btn => {
         btn.addEventListener("click", () => {
@@ -78,13 +78,41 @@ export async function setupManagerDashboard() {
         addEmployeeBtn.addEventListener('click', () => openEmployeeDialog());
     }
 
-    await loadMenuItems();
-    await loadEmployeeManagement();
-    await updateManagerStats();
+    // One request for every widget; any the server could not load in time is fetched on its own
+    const widgets = await loadDashboard();
+    await Promise.all([
+        loadMenuItems(widgets.menuItems),
+        loadEmployeeManagement(widgets.employees),
+        updateManagerStats(widgets),
+    ]);
+    if (widgets.monthlyReport) {
+        const now = new Date();
+        await showMonthlyReport(widgets.monthlyReport, String(now.getMonth() + 1), now.getFullYear())
+            .catch(err => console.error('Monthly report error:', err));
+    }
     initManagerTabs();
     hideAddMenuModal();
 }
 
+// Widgets of /api/managers/dashboard, or none if the request failed
+async function loadDashboard() {
+    try {
+        const resp = await fetchWithTimeout('/api/managers/dashboard', {}, 8000);
+        if (!resp.ok) {
+            console.warn('dashboard responded with', resp.status);
+            return {};
+        }
+        const dashboard = await parseJsonSafe(resp);
+        if (dashboard.unavailable && dashboard.unavailable.length > 0) {
+            console.warn('dashboard widgets unavailable:', dashboard.unavailable);
+        }
+        return dashboard.widgets || {};
+    } catch (err) {
+        console.error('Failed to load dashboard:', err);
+        return {};
+    }
+}
+
 // Event listeners for DOMContentLoaded
 document.addEventListener("DOMContentLoaded", () => {
     document.getElementById('cancelAddMenu').addEventListener('click', hideAddMenuModal);
@@ -169,28 +197,7 @@ document.addEventListener('DOMContentLoaded', () => {
             if (!resp.ok) throw new Error('โหลดข้อมูลไม่สำเร็จ: ' + resp.status + ' ' + resp.statusText);
 
             const data = await parseJsonSafe(resp);
-
-            const resultEl = document.getElementById('reportResult');
-            if (resultEl) resultEl.classList.remove('hidden');
-
-            const monthNameEl = document.getElementById('monthName');
-            const yearNameEl = document.getElementById('yearName');
-            if (monthNameEl) monthNameEl.textContent = month === 'all' ? 'ทั้งหมด' : getMonthName(month);
-            if (yearNameEl) yearNameEl.textContent = year;
-
-            const totalRevenueEl = document.getElementById('totalRevenue');
-            const totalOrdersEl = document.getElementById('totalOrders');
-            const topMenuEl = document.getElementById('topMenu');
-            const topCountEl = document.getElementById('topCount');
-            const topRevenueEl = document.getElementById('topRevenue');
-
-            if (totalRevenueEl) totalRevenueEl.textContent = (data.totalRevenue ?? 0).toLocaleString();
-            if (totalOrdersEl) totalOrdersEl.textContent = data.totalOrders ?? '0';
-            if (topMenuEl) topMenuEl.textContent = data.topMenu ?? '-';
-            if (topCountEl) topCountEl.textContent = data.topCount ?? '0';
-            if (topRevenueEl) topRevenueEl.textContent = (data.topRevenue ?? 0).toLocaleString();
-
-            if (data.monthlySales) renderChart(data.monthlySales);
+            await showMonthlyReport(data, month, year);
         } catch (err) {
             showErrorModal('เกิดข้อผิดพลาดในการโหลดรายงาน:\n' + (err.message || String(err)));
             console.error('Monthly report error:', err);
@@ -198,6 +205,67 @@ document.addEventListener('DOMContentLoaded', () => {
     });
 });
 
+// Fill the report section with a monthly report and its top 10 items
+async function showMonthlyReport(data, month, year) {
+    const monthSelect = document.getElementById('reportMonth');
+    const yearSelect = document.getElementById('reportYear');
+    if (monthSelect) monthSelect.value = month;
+    if (yearSelect) yearSelect.value = year;
+
+    const resultEl = document.getElementById('reportResult');
+    if (resultEl) resultEl.classList.remove('hidden');
+
+    const monthNameEl = document.getElementById('monthName');
+    const yearNameEl = document.getElementById('yearName');
+    if (monthNameEl) monthNameEl.textContent = month === 'all' ? 'ทั้งหมด' : getMonthName(month);
+    if (yearNameEl) yearNameEl.textContent = year;
+
+    const totalRevenueEl = document.getElementById('totalRevenue');
+    const totalOrdersEl = document.getElementById('totalOrders');
+    const topMenuEl = document.getElementById('topMenu');
+    const topCountEl = document.getElementById('topCount');
+    const topRevenueEl = document.getElementById('topRevenue');
+
+    if (totalRevenueEl) totalRevenueEl.textContent = (data.totalRevenue ?? 0).toLocaleString();
+    if (totalOrdersEl) totalOrdersEl.textContent = data.totalOrders ?? '0';
+    if (topMenuEl) topMenuEl.textContent = data.topMenu ?? '-';
+    if (topCountEl) topCountEl.textContent = data.topCount ?? '0';
+    if (topRevenueEl) topRevenueEl.textContent = (data.topRevenue ?? 0).toLocaleString();
+
+    if (data.monthlySales) renderChart(data.monthlySales);
+    await loadBestSellers(month, year);
+}
+
+// Top 10 items for the selected month (or whole year)
+async function loadBestSellers(month, year) {
+    const listEl = document.getElementById('topItemsList');
+    if (!listEl) return;
+    const pad = n => String(n).padStart(2, '0');
+    const from = month === 'all' ? `${year}-01-01` : `${year}-${pad(month)}-01`;
+    const to = month === 'all' ? `${year}-12-31` : `${year}-${pad(month)}-${pad(new Date(year, month, 0).getDate())}`;
+
+    const resp = await fetch(`/api/reports/best-sellers?from=${from}&to=${to}&limit=10`);
+    if (!resp.ok) throw new Error('โหลดเมนูขายดีไม่สำเร็จ: ' + resp.status + ' ' + resp.statusText);
+    const items = await parseJsonSafe(resp) || [];
+
+    listEl.innerHTML = '';
+    if (items.length === 0) {
+        listEl.innerHTML = '<li class="text-gray-500">ไม่มีข้อมูล</li>';
+        return;
+    }
+    for (const item of items) {
+        const li = document.createElement('li');
+        li.className = 'flex justify-between py-1 border-b border-gray-100';
+        const name = document.createElement('span');
+        name.textContent = item.itemName;
+        const quantity = document.createElement('span');
+        quantity.className = 'font-semibold text-orange-500';
+        quantity.textContent = `${item.quantity} จาน`;
+        li.append(name, quantity);
+        listEl.appendChild(li);
+    }
+}
+
 function getMonthName(month) {
     const months = ["มกราคม", "กุมภาพันธ์", "มีนาคม", "เมษายน", "พฤษภาคม",
         "มิถุนายน", "กรกฎาคม", "สิงหาคม", "กันยายน", "ตุลาคม", "พฤศจิกายน", "ธันวาคม"];
@@ -252,14 +320,63 @@ function renderChart(monthlySales) {
     });
 }
 
-async function updateManagerStats() {
+// Format seconds as m:ss
+function formatDuration(seconds) {
+    const s = Math.round(seconds);
+    return `${Math.floor(s / 60)}:${String(s % 60).padStart(2, '0')}`;
+}
+
+// Queue time (Pending) and prep time (In Progress) percentiles for the current hour
+async function updateKitchenTimes(preloaded) {
     try {
-        // Fetch sales report
-        const resp = await fetchWithTimeout('/api/reports/sales', {}, 8000);
-        if (!resp.ok) {
-            throw new Error('ไม่สามารถโหลดรายงานยอดขาย: ' + resp.status + ' ' + resp.statusText);
+        let timings = preloaded;
+        if (!timings) {
+            const resp = await fetchWithTimeout('/api/managers/kitchen-times?hours=1', {}, 8000);
+            if (!resp.ok) {
+                console.warn('kitchen-times responded with', resp.status);
+                return;
+            }
+            timings = await parseJsonSafe(resp);
+        }
+        const targets = { 'Pending': ['queueTime', 'queueCount'], 'In Progress': ['prepTime', 'prepCount'] };
+        for (const timing of timings) {
+            const ids = targets[timing.status];
+            if (!ids) continue;
+            const valueEl = document.getElementById(ids[0]);
+            const countEl = document.getElementById(ids[1]);
+            if (valueEl) {
+                valueEl.textContent = timing.count > 0
+                    ? `${formatDuration(timing.p50Seconds)} / ${formatDuration(timing.p95Seconds)}`
+                    : '-';
+            }
+            if (countEl) {
+                countEl.textContent = timing.count;
+            }
+        }
+    } catch (err) {
+        console.error('Failed to load kitchen times:', err);
+    }
+}
+
+// Today's sales, order counts and kitchen times; widgets holds any already loaded by the dashboard request
+async function updateManagerStats(widgets = {}) {
+    await Promise.all([
+        updateSalesToday(widgets.salesToday),
+        updateOrderStats(widgets.orderStats),
+        updateKitchenTimes(widgets.kitchenTimes),
+    ]);
+}
+
+async function updateSalesToday(preloaded) {
+    try {
+        let report = preloaded;
+        if (!report) {
+            const resp = await fetchWithTimeout('/api/reports/sales', {}, 8000);
+            if (!resp.ok) {
+                throw new Error('ไม่สามารถโหลดรายงานยอดขาย: ' + resp.status + ' ' + resp.statusText);
+            }
+            report = await parseJsonSafe(resp);
         }
-        const report = await parseJsonSafe(resp);
         console.log('sales report:', report);
 
         const ordersEl = document.getElementById('todayOrders');
@@ -271,48 +388,55 @@ async function updateManagerStats() {
             const revenueValue = typeof report.revenue === 'number' ? report.revenue.toFixed(2) : (report.revenue ?? 0);
             revenueEl.textContent = `฿${Number(revenueValue).toLocaleString()}`;
         }
+    } catch (err) {
+        console.error('updateManagerStats error:', err);
+    }
+}
 
-        // Fetch order statistics (counts by status)
-            try {
-                const orderStatsResp = await fetchWithTimeout('/api/managers/order-stats', {}, 8000);
-                if (orderStatsResp.ok) {
-                    const orderStats = await parseJsonSafe(orderStatsResp);
-                console.log('order stats:', orderStats);
-                const pendingEl = document.getElementById('pendingOrders');
-                const completedEl = document.getElementById('completedOrders');
-
-                if (pendingEl) {
-                    pendingEl.textContent = orderStats.pendingOrders ?? 0;
-                }
-                if (completedEl) {
-                    completedEl.textContent = orderStats.completedOrders ?? 0;
-                }
-            } else {
+// Order counts by status
+async function updateOrderStats(preloaded) {
+    try {
+        let orderStats = preloaded;
+        if (!orderStats) {
+            const orderStatsResp = await fetchWithTimeout('/api/managers/order-stats', {}, 8000);
+            if (!orderStatsResp.ok) {
                 console.warn('order-stats responded with', orderStatsResp.status);
+                return;
             }
-        } catch (orderErr) {
-            console.error('Failed to load order statistics:', orderErr);
+            orderStats = await parseJsonSafe(orderStatsResp);
         }
-    } catch (err) {
-        console.error('updateManagerStats error:', err);
+        console.log('order stats:', orderStats);
+        const pendingEl = document.getElementById('pendingOrders');
+        const completedEl = document.getElementById('completedOrders');
+
+        if (pendingEl) {
+            pendingEl.textContent = orderStats.pendingOrders ?? 0;
+        }
+        if (completedEl) {
+            completedEl.textContent = orderStats.completedOrders ?? 0;
+        }
+    } catch (orderErr) {
+        console.error('Failed to load order statistics:', orderErr);
     }
 }
 
 // Function to load menu items and apply filter
-async function loadMenuItems() {
+async function loadMenuItems(preloaded) {
     const menuList = document.getElementById("menuManagementList");
     if (!menuList) {
         return;
     }
     menuList.innerHTML = "";
-    let menuItems = [];
-    try {
-        const resp = await fetch('/api/manager/menu-items');
-        if (resp.ok) {
-            menuItems = await parseJsonSafe(resp);
+    let menuItems = preloaded || [];
+    if (!preloaded) {
+        try {
+            const resp = await fetch('/api/manager/menu-items');
+            if (resp.ok) {
+                menuItems = await parseJsonSafe(resp);
+            }
+        } catch (e) {
+            alert('โหลดเมนูไม่สำเร็จ');
         }
-    } catch (e) {
-        alert('โหลดเมนูไม่สำเร็จ');
     }
     
     // Apply filter based on currentMenuFilter
@@ -612,21 +736,23 @@ function switchManagerTab(event, tabName) {
 }
 
 // Load and manage employee data
-async function loadEmployeeManagement() {
+async function loadEmployeeManagement(preloaded) {
     const employeeList = document.getElementById('employeeList');
     if (!employeeList) {
         return;
     }
     employeeList.innerHTML = '';
 
-    let employees = [];
-    try {
-        const resp = await fetch('/api/employees');
-        if (resp.ok) {
+    let employees = preloaded || [];
+    if (!preloaded) {
+        try {
+            const resp = await fetch('/api/employees');
+            if (resp.ok) {
                 employees = await parseJsonSafe(resp);
+            }
+        } catch (err) {
+            console.error('โหลดข้อมูลพนักงานไม่สำเร็จ', err);
         }
-    } catch (err) {
-        console.error('โหลดข้อมูลพนักงานไม่สำเร็จ', err);
     }
 
     if (employees.length === 0) {
@@ -0,0 +1,50 @@
+package com.restaurant.demo;
+
+import com.restaurant.demo.dto.OrderResponseDto;
+import com.restaurant.demo.model.OrderStatus;
+import com.restaurant.demo.service.kitchen.ActiveOrderIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * After-commit upserts can arrive out of order; a finished order must not come back.
+ */
+class ActiveOrderIndexTest {
+
+    private final ActiveOrderIndex index = new ActiveOrderIndex();
+    private final LocalDateTime placedAt = LocalDateTime.of(2026, 1, 15, 12, 0);
+
+    @Test
+    void lateCallbackDoesNotBringBackAFinishedOrder() {
+        index.upsert(order("Pending", placedAt));
+
+        // Pending -> In Progress commits first, but In Progress -> Finish's callback runs before it
+        index.upsert(order("Finish", placedAt.plusMinutes(10)));
+        index.upsert(order("In Progress", placedAt.plusMinutes(5)));
+
+        assertEquals(0, index.count(OrderStatus.PENDING));
+        assertEquals(0, index.count(OrderStatus.IN_PROGRESS));
+        assertEquals(List.of(), index.getOrders(OrderStatus.IN_PROGRESS));
+    }
+
+    @Test
+    void newerTransitionAfterEvictionIsApplied() {
+        index.upsert(order("Cancelled", placedAt.plusMinutes(1)));
+        index.upsert(order("Pending", placedAt.plusMinutes(2)));
+
+        assertEquals(1, index.count(OrderStatus.PENDING));
+    }
+
+    private OrderResponseDto order(String status, LocalDateTime updatedAt) {
+        OrderResponseDto order = new OrderResponseDto();
+        order.setOrderId(1L);
+        order.setStatus(status);
+        order.setCreatedAt(placedAt);
+        order.setUpdatedAt(updatedAt);
+        return order;
+    }
+}
@@ -1,5 +1,6 @@
 package com.restaurant.demo;
 
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
@@ -13,10 +14,12 @@ import org.springframework.transaction.annotation.Transactional;
 @ActiveProfiles("test")
 @TestPropertySource(locations = "classpath:application-test.properties")
 @Transactional
+@ExtendWith(QueryBudgetExtension.class)
 public abstract class BaseIntegrationTest {
 
     // This base class ensures that:
     // 1. Tests use the H2 in-memory database instead of MySQL
     // 2. Each test runs in a transaction that is rolled back after completion
     // 3. Tests are isolated from each other and don't affect the production database
+    // 4. @QueryBudget(max = N) on a test fails it when its body runs more than N SQL statements
 }
@@ -0,0 +1,118 @@
+package com.restaurant.demo;
+
+import com.restaurant.demo.config.branch.BranchContext;
+import com.restaurant.demo.dto.ReportSummary;
+import com.restaurant.demo.model.Customer;
+import com.restaurant.demo.model.Order;
+import com.restaurant.demo.model.OrderItem;
+import com.restaurant.demo.repository.CustomerRepository;
+import com.restaurant.demo.repository.OrderRepository;
+import com.restaurant.demo.service.report.BestSellerService;
+import com.restaurant.demo.service.report.CrossBranchReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two branches on two H2 databases: rows stay in their branch and the cross-branch
+ * report adds them up. Not transactional, so each repository call really runs on the
+ * branch it is bound to.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        // IGNORECASE matches MySQL's default collation, which the report queries rely on
+        "spring.datasource.url=jdbc:h2:mem:branch-main;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+        "app.branch.datasources.east.url=jdbc:h2:mem:branch-east;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+        "app.branch.datasources.east.username=sa",
+        "app.branch.datasources.east.password=",
+        "app.cart.retention.enabled=false",
+        "app.orders.archive.enabled=false"
+})
+class BranchRoutingTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CrossBranchReportService crossBranchReportService;
+
+    @Autowired
+    private BestSellerService bestSellerService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        BranchContext.run("main", () -> {
+            orderRepository.deleteAll();
+            placeFinishedOrder("main", new OrderItem("Bamee", new BigDecimal("50.00"), 2));
+            // Saved straight through the repository, so the daily item counts are not updated
+            bestSellerService.rebuild();
+        });
+        BranchContext.run("east", () -> {
+            orderRepository.deleteAll();
+            placeFinishedOrder("east",
+                    new OrderItem("Tom Yum", new BigDecimal("60.00"), 3),
+                    new OrderItem("Bamee", new BigDecimal("50.00"), 2));
+            bestSellerService.rebuild();
+        });
+    }
+
+    @Test
+    void eachBranchOnlySeesItsOwnOrders() {
+        assertEquals(new BigDecimal("100.00"), BranchContext.call("main",
+                () -> orderRepository.findAll().get(0).getTotalAmount()));
+        assertEquals(new BigDecimal("280.00"), BranchContext.call("east",
+                () -> orderRepository.findAll().get(0).getTotalAmount()));
+    }
+
+    @Test
+    void crossBranchReportAddsUpBranches() {
+        LocalDate today = LocalDate.now();
+        ReportSummary summary = crossBranchReportService.getMonthlyReport(today.getMonthValue(), today.getYear());
+
+        assertEquals(0, new BigDecimal("380.00").compareTo(summary.getTotalRevenue()));
+        assertEquals(2, summary.getTotalOrders());
+        // East alone would pick Tom Yum (3); summed over branches Bamee wins with 4
+        assertEquals("Bamee", summary.getTopMenu());
+        assertEquals(4, summary.getTopCount());
+    }
+
+    @Test
+    void unknownBranchIsRejected() throws Exception {
+        mockMvc.perform(get("/api/reports/monthly").param("year", "2025").header("X-Branch", "nowhere"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void placeFinishedOrder(String branch, OrderItem... items) {
+        Customer customer = customerRepository.findByUsername(branch + "_customer")
+                .orElseGet(() -> customerRepository.save(new Customer("Branch " + branch, branch + "_customer",
+                        branch + "@example.com", "0812345678", "not-a-real-hash")));
+        Order order = new Order();
+        order.setCustomer(customer);
+        for (OrderItem item : items) {
+            order.addOrderItem(item);
+        }
+        order.calculateTotalAmount();
+        order.setStatus("Finish");
+        orderRepository.save(order);
+    }
+}
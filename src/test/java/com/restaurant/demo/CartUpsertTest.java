@@ -0,0 +1,96 @@
+package com.restaurant.demo;
+
+import com.restaurant.demo.model.CartItem;
+import com.restaurant.demo.model.Customer;
+import com.restaurant.demo.model.MenuItem;
+import com.restaurant.demo.repository.CustomerRepository;
+import com.restaurant.demo.repository.MenuItemRepo;
+import com.restaurant.demo.service.CartService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * addToCart by menu item goes through the single-statement upsert
+ */
+class CartUpsertTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MenuItemRepo menuItemRepo;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Customer customer;
+    private MenuItem bamee;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(new Customer("Upsert Test", "upsert", "upsert@example.com", "0812345678", "not-a-real-hash"));
+        bamee = menuItemRepo.save(new MenuItem(null, "Bamee", 50.0, "Noodles", "egg noodle"));
+    }
+
+    @Test
+    void repeatedAddsMergeIntoOneLine() {
+        CartItem first = cartService.addToCart(customer.getId(), bamee.getId(), 2);
+        CartItem second = cartService.addToCart(customer.getId(), bamee.getId(), 3);
+
+        assertEquals(first.getId(), second.getId());
+        assertEquals(5, second.getQuantity());
+        List<CartItem> cart = cartService.getCartItems(customer.getId());
+        assertEquals(1, cart.size());
+        assertEquals(bamee.getId(), cart.get(0).getMenuItemId());
+    }
+
+    @Test
+    // Three statements per add (lookup, upsert, select); a refresh would make it four
+    @QueryBudget(max = 6)
+    void addingToALineNotYetLoadedSkipsTheRefresh() {
+        cartService.addToCart(customer.getId(), bamee.getId(), 2);
+        entityManager.clear();
+
+        CartItem item = cartService.addToCart(customer.getId(), bamee.getId(), 3);
+
+        assertEquals(5, item.getQuantity());
+    }
+
+    @Test
+    void quantityIsCappedAt99() {
+        cartService.addToCart(customer.getId(), bamee.getId(), 60);
+        CartItem item = cartService.addToCart(customer.getId(), bamee.getId(), 60);
+
+        assertEquals(99, item.getQuantity());
+    }
+
+    @Test
+    void finishingAndResettingMergeIntoTheExistingLine() {
+        cartService.addToCart(customer.getId(), bamee.getId(), 2);
+        cartService.finishCart(customer.getId());
+        cartService.addToCart(customer.getId(), bamee.getId(), 3);
+        cartService.finishCart(customer.getId());
+
+        List<CartItem> cart = cartService.getCartItems(customer.getId());
+        assertEquals(1, cart.size());
+        assertEquals(CartItem.STATUS_FINISH, cart.get(0).getStatus());
+        assertEquals(5, cart.get(0).getQuantity());
+
+        cartService.addToCart(customer.getId(), bamee.getId(), 1);
+        cartService.resetCart(customer.getId());
+
+        cart = cartService.getCartItems(customer.getId());
+        assertEquals(1, cart.size());
+        assertEquals(CartItem.STATUS_PENDING, cart.get(0).getStatus());
+        assertEquals(6, cart.get(0).getQuantity());
+    }
+}
@@ -0,0 +1,55 @@
+package com.restaurant.demo;
+
+import com.restaurant.demo.service.menu.MenuCatalog.CatalogItem;
+import com.restaurant.demo.service.menu.MenuSearchIndex;
+import com.restaurant.demo.service.menu.MenuSearchIndex.MenuSuggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Thai text has no spaces between words; substrings, missing tone marks and incremental
+ * changes must all find the right items.
+ */
+class MenuSearchIndexTest {
+
+    private final MenuSearchIndex index = new MenuSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.replace(List.of(
+                new CatalogItem(1L, "ต้มยำกุ้งน้ำข้น", 120, "Noodles", "ต้มยำกุ้งแม่น้ำ"),
+                new CatalogItem(2L, "บะหมี่ต้มยำ", 60, "Noodles", "บะหมี่เส้นเล็ก"),
+                new CatalogItem(3L, "ชาไทยเย็น", 45, "Beverages", "Thai iced tea"),
+                new CatalogItem(4L, "Mango Sticky Rice", 80, "Desserts", "ข้าวเหนียวมะม่วง")));
+    }
+
+    @Test
+    void findsWordsInsideUnspacedThai() {
+        assertEquals(List.of(1L, 2L), ids("ต้มยำ"));
+        assertEquals(List.of(1L), ids("กุ้ง"));
+        assertEquals(List.of(4L), ids("มะม่วง"));
+    }
+
+    @Test
+    void ignoresToneMarksCaseAndWordOrder() {
+        assertEquals(List.of(1L, 2L), ids("ตมยำ"));
+        assertEquals(List.of(3L), ids("ICED thai"));
+        assertEquals(List.of(4L), ids("rice mango"));
+    }
+
+    @Test
+    void followsMenuChanges() {
+        index.apply(List.of(new CatalogItem(5L, "ต้มยำทะเล", 150, "Noodles", null)), List.of(1L));
+
+        assertEquals(List.of(5L, 2L), ids("ต้มยำ"));
+        assertEquals(List.of(), ids("กุ้ง"));
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 10).stream().map(MenuSuggestion::id).toList();
+    }
+}
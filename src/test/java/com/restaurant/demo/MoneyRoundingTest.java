@@ -0,0 +1,38 @@
+package com.restaurant.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.demo.model.CartItem;
+import com.restaurant.demo.model.Money;
+import com.restaurant.demo.model.OrderItem;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Amounts with more than two decimals coming in through the BigDecimal setters (JSON bodies)
+ * are rounded half-up, as the DECIMAL(…, 2) columns did, instead of failing the request.
+ */
+class MoneyRoundingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void jsonPricesWithThreeDecimalsAreRounded() throws Exception {
+        OrderItem orderItem = objectMapper.readValue(
+                "{\"itemName\":\"Bamee\",\"itemPrice\":49.999,\"quantity\":2}", OrderItem.class);
+        assertEquals(new BigDecimal("50.00"), orderItem.getItemPrice());
+        assertEquals(new BigDecimal("100.00"), orderItem.getTotal());
+
+        CartItem cartItem = objectMapper.readValue("{\"itemName\":\"Thai Tea\",\"itemPrice\":25.505}", CartItem.class);
+        assertEquals(new BigDecimal("25.51"), cartItem.getItemPrice());
+    }
+
+    @Test
+    void exactConversionStillRejectsExtraDecimals() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("49.999")));
+        assertEquals(Money.ofMinor(4999), Money.of(new BigDecimal("49.99")));
+    }
+}
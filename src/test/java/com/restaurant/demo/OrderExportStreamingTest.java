@@ -0,0 +1,142 @@
+package com.restaurant.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.demo.service.export.OrderExportService;
+import com.restaurant.demo.service.order.OrderArchive;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The export asks MySQL to stream (forward-only, read-only, fetch size Integer.MIN_VALUE)
+ * and writes rows out while the result set is still being read. H2 stands in for MySQL
+ * behind JDBC proxies that report "MySQL" and record how the statement was set up.
+ */
+class OrderExportStreamingTest {
+
+    private static final int ORDERS = 5000;
+
+    private final AtomicInteger rowsRead = new AtomicInteger();
+    private final AtomicInteger rowsReadAtFirstWrite = new AtomicInteger(-1);
+    private volatile int resultSetType;
+    private volatile int resultSetConcurrency;
+    private volatile int fetchSize;
+
+    private OrderExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        DataSource h2 = new DriverManagerDataSource("jdbc:h2:mem:export-streaming;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(h2);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS order_items");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS orders");
+        jdbcTemplate.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, created_at TIMESTAMP, status VARCHAR(20), "
+                + "customer_id BIGINT, employee_id BIGINT, total_amount DECIMAL(10, 2))");
+        jdbcTemplate.execute("CREATE TABLE order_items (id BIGINT PRIMARY KEY, order_id BIGINT, item_name VARCHAR(100), "
+                + "item_price DECIMAL(10, 2), quantity INT, total DECIMAL(10, 2))");
+        jdbcTemplate.update("INSERT INTO orders SELECT x, TIMESTAMP '2026-01-15 12:00:00', 'Finish', 1, NULL, 50.00 "
+                + "FROM SYSTEM_RANGE(1, " + ORDERS + ")");
+        jdbcTemplate.update("INSERT INTO order_items SELECT x, x, 'Bamee', 50.00, 1, 50.00 FROM SYSTEM_RANGE(1, " + ORDERS + ")");
+
+        exportService = new OrderExportService(new RecordingDataSource(h2), new ObjectMapper(), mock(OrderArchive.class), 500);
+    }
+
+    @Test
+    void streamsRowsFromMySqlWithoutBufferingTheResult() throws Exception {
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                rowsReadAtFirstWrite.compareAndSet(-1, rowsRead.get());
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                rowsReadAtFirstWrite.compareAndSet(-1, rowsRead.get());
+            }
+        };
+
+        exportService.export(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31), OrderExportService.Format.CSV, out);
+
+        assertEquals(ResultSet.TYPE_FORWARD_ONLY, resultSetType);
+        assertEquals(ResultSet.CONCUR_READ_ONLY, resultSetConcurrency);
+        assertEquals(Integer.MIN_VALUE, fetchSize);
+        assertEquals(ORDERS, rowsRead.get());
+        assertTrue(rowsReadAtFirstWrite.get() > 0 && rowsReadAtFirstWrite.get() < ORDERS,
+                "first bytes written after " + rowsReadAtFirstWrite.get() + " of " + ORDERS + " rows");
+    }
+
+    // Reports MySQL, records the statement settings instead of passing the MySQL-only fetch size to H2,
+    // and counts ResultSet.next() calls
+    private final class RecordingDataSource extends DelegatingDataSource {
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return proxy(Connection.class, connection, (proxy, method, args) -> switch (method.getName()) {
+                case "getMetaData" -> proxy(DatabaseMetaData.class, connection.getMetaData(), (p, m, a) ->
+                        m.getName().equals("getDatabaseProductName") ? "MySQL" : invoke(m, connection.getMetaData(), a));
+                case "prepareStatement" -> {
+                    if (args.length == 3) {
+                        resultSetType = (Integer) args[1];
+                        resultSetConcurrency = (Integer) args[2];
+                    }
+                    PreparedStatement statement = (PreparedStatement) invoke(method, connection, args);
+                    yield proxy(PreparedStatement.class, statement, (p, m, a) -> switch (m.getName()) {
+                        case "setFetchSize" -> {
+                            fetchSize = (Integer) a[0];
+                            yield null;
+                        }
+                        case "executeQuery" -> {
+                            ResultSet resultSet = (ResultSet) invoke(m, statement, a);
+                            yield proxy(ResultSet.class, resultSet, (rp, rm, ra) -> {
+                                Object result = invoke(rm, resultSet, ra);
+                                if (rm.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                                    rowsRead.incrementAndGet();
+                                }
+                                return result;
+                            });
+                        }
+                        default -> invoke(m, statement, a);
+                    });
+                }
+                default -> invoke(method, connection, args);
+            });
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
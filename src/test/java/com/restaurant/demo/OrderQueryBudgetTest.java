@@ -0,0 +1,55 @@
+package com.restaurant.demo;
+
+import com.restaurant.demo.dto.OrderResponseDto;
+import com.restaurant.demo.model.Customer;
+import com.restaurant.demo.repository.CustomerRepository;
+import com.restaurant.demo.service.CartService;
+import com.restaurant.demo.service.OrderService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Statement budgets for the order placement path
+ */
+class OrderQueryBudgetTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(new Customer("Budget Test", "budget", "budget@example.com", "0812345678", "not-a-real-hash"));
+        cartService.addToCart(customer, "Bamee", new BigDecimal("50.00"), 2);
+        cartService.addToCart(customer, "Thai Tea", new BigDecimal("25.50"), 1);
+        cartService.addToCart(customer, "Khao Man Gai", new BigDecimal("60.00"), 1);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @QueryBudget(max = 9)
+    void placeOrderStaysWithinBudget() {
+        OrderResponseDto order = orderService.placeOrder(customer.getId(), null);
+        entityManager.flush();
+
+        assertEquals(3, order.getItems().size());
+        assertEquals(0, new BigDecimal("185.50").compareTo(order.getTotalPrice()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.restaurant.demo;
+
+import com.restaurant.demo.dto.OrderResponseDto;
+import com.restaurant.demo.model.Customer;
+import com.restaurant.demo.repository.CustomerRepository;
+import com.restaurant.demo.service.CartService;
+import com.restaurant.demo.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two tablets finishing the same order at once: one transition wins, the other is rejected,
+ * and item_daily_sales and order_status_history count it once. Not transactional and on its
+ * own database, so both requests really commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:transition-race;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.cart.retention.enabled=false",
+        "app.orders.archive.enabled=false"
+})
+class OrderTransitionRaceTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void concurrentIdenticalTransitionsApplyOnce() throws Exception {
+        Customer customer = customerRepository.save(new Customer("Race Test", "race", "race@example.com", "0812345678", "not-a-real-hash"));
+        cartService.addToCart(customer, "Bamee", new BigDecimal("50.00"), 2);
+        OrderResponseDto order = orderService.placeOrder(customer.getId(), null);
+        orderService.updateOrderStatus(order.getOrderId(), "In Progress");
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService tablets = Executors.newFixedThreadPool(2);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            results.add(tablets.submit(() -> {
+                start.await();
+                return orderService.updateOrderStatus(order.getOrderId(), "Finish");
+            }));
+        }
+        start.countDown();
+        int applied = 0;
+        for (Future<?> result : results) {
+            try {
+                result.get();
+                applied++;
+            } catch (Exception rejected) {
+                // Invalid status transition from Finish to Finish
+            }
+        }
+        tablets.shutdown();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertEquals(1, applied);
+        assertEquals(2L, jdbcTemplate.queryForObject(
+                "SELECT quantity FROM item_daily_sales WHERE item_name = 'Bamee'", Long.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_status_history WHERE order_id = ? AND to_status = 'Finish'",
+                Integer.class, order.getOrderId()));
+    }
+}
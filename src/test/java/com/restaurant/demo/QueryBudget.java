@@ -0,0 +1,24 @@
+package com.restaurant.demo;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the test if its body executes more SQL statements than {@link #max()}.
+ *
+ * Only the test method itself is measured (setup in @BeforeEach is not), and only
+ * statements that actually reach JDBC count, so flush the EntityManager before the
+ * method returns if pending writes should be included. Placed on a class, it applies
+ * to every test method that does not declare its own budget.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface QueryBudget {
+
+    /** Maximum number of statements the test body may execute */
+    int max();
+}
@@ -0,0 +1,45 @@
+package com.restaurant.demo;
+
+import com.restaurant.demo.config.sql.SqlStatementStats;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.Optional;
+
+/**
+ * Enforces {@link QueryBudget} by counting the statements seen by the tracking DataSource
+ * while the test method runs.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (findBudget(context).isPresent()) {
+            context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatementStats.begin());
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementStats stats = context.getStore(NAMESPACE).remove(context.getUniqueId(), SqlStatementStats.class);
+        if (stats == null) {
+            return;
+        }
+        SqlStatementStats.end(stats);
+
+        int max = findBudget(context).orElseThrow().max();
+        if (stats.getStatements() > max) {
+            throw new AssertionError(String.format("%s exceeded its query budget of %d: %s",
+                    context.getDisplayName(), max, stats));
+        }
+    }
+
+    private static Optional<QueryBudget> findBudget(ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getTestMethod(), QueryBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getTestClass(), QueryBudget.class));
+    }
+}
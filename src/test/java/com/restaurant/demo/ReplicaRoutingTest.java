@@ -0,0 +1,118 @@
+package com.restaurant.demo;
+
+import com.restaurant.demo.config.replica.ReadYourWritesFilter;
+import com.restaurant.demo.config.replica.ReplicaContext;
+import com.restaurant.demo.config.replica.ReplicaDataSource;
+import com.restaurant.demo.model.MenuItem;
+import com.restaurant.demo.repository.MenuItemRepo;
+import com.restaurant.demo.service.MenuItemService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A primary and a "replica" on two H2 databases that are never synchronised, so every
+ * read shows which database it came from. Not transactional, for the same reason.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "app.datasource.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.cart.retention.enabled=false",
+        "app.orders.archive.enabled=false"
+})
+class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:replica-primary;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-copy;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private MenuItemRepo menuItemRepo;
+
+    private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void setUp() {
+        menuItemRepo.deleteAll();
+        replica.execute("DROP TABLE IF EXISTS menu_items");
+        for (String statement : primary.queryForList("SCRIPT NODATA TABLE menu_items", String.class)) {
+            if (statement.startsWith("CREATE") && !statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+        menuItemService.addMenuItem(new MenuItem(null, "Pad Thai", 60.0));
+        replica.update("INSERT INTO menu_items (id, name, price, active) VALUES (1000, 'Som Tam', 50.0, TRUE)");
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromTheReplica() {
+        assertEquals(List.of("Som Tam"), names(menuItemService.getAllMenuItems()));
+        assertEquals(List.of("Pad Thai"), names(ReplicaContext.onPrimary(menuItemService::getAllMenuItems)));
+        // Read-write transactions, and writes, go to the primary
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM menu_items WHERE name = 'Pad Thai'", Integer.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM menu_items WHERE name = 'Pad Thai'", Integer.class));
+    }
+
+    @Test
+    void sessionThatJustWroteReadsFromThePrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1));
+        MockHttpSession session = new MockHttpSession();
+        List<String> seen = new ArrayList<>();
+        FilterChain readMenu = (request, response) -> seen.addAll(names(menuItemService.getAllMenuItems()));
+
+        filter.doFilter(request("GET", session), new MockHttpServletResponse(), readMenu);
+        filter.doFilter(request("POST", session), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("GET", session), new MockHttpServletResponse(), readMenu);
+
+        assertEquals(List.of("Som Tam", "Pad Thai"), seen);
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() {
+        DataSource primaryDataSource = new DriverManagerDataSource(PRIMARY_URL, "sa", "");
+        DataSource routing = ReplicaDataSource.of(primaryDataSource,
+                new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/unreachable", "sa", ""));
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        readOnly.setReadOnly(true);
+
+        String name = readOnly.execute(status -> new JdbcTemplate(routing)
+                .queryForObject("SELECT name FROM menu_items", String.class));
+        assertEquals("Pad Thai", name);
+    }
+
+    private static MockHttpServletRequest request(String method, MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/menu");
+        request.setSession(session);
+        return request;
+    }
+
+    private static List<String> names(List<MenuItem> items) {
+        return items.stream().map(MenuItem::getName).toList();
+    }
+}
@@ -0,0 +1,153 @@
+package com.restaurant.demo;
+
+import com.restaurant.demo.dto.ReportSummary;
+import com.restaurant.demo.model.Customer;
+import com.restaurant.demo.model.Order;
+import com.restaurant.demo.model.OrderItem;
+import com.restaurant.demo.repository.CustomerRepository;
+import com.restaurant.demo.repository.OrderRepository;
+import com.restaurant.demo.repository.ReportSnapshotRepository;
+import com.restaurant.demo.service.OrderService;
+import com.restaurant.demo.service.impl.ReportServiceImpl;
+import com.restaurant.demo.service.report.CachingReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Reports of a month that is over are computed once, stored, and evicted when one of its
+ * orders finishes late. Not transactional: the status change has to commit to evict.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        // IGNORECASE matches MySQL's default collation, which the report queries rely on
+        "spring.datasource.url=jdbc:h2:mem:report-cache;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+        "app.cart.retention.enabled=false",
+        "app.orders.archive.enabled=false"
+})
+class ReportCacheTest {
+
+    private final YearMonth lastMonth = YearMonth.now().minusMonths(1);
+
+    @Autowired
+    private CachingReportService reportService;
+
+    @Autowired
+    private ReportSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private ReportServiceImpl delegate;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        reportService.clear();
+        placeLastMonth("Finish", new OrderItem("Bamee", new BigDecimal("50.00"), 2));
+    }
+
+    @Test
+    void closedMonthIsComputedOnceAndStored() {
+        assertRevenue("100.00", lastMonthReport());
+
+        // Not a status change, so the cache cannot know about it
+        placeLastMonth("Finish", new OrderItem("Bamee", new BigDecimal("50.00"), 1));
+
+        assertRevenue("100.00", lastMonthReport());
+        assertTrue(snapshotRepository.findByReportYearAndReportMonth(lastMonth.getYear(), lastMonth.getMonthValue())
+                .isPresent());
+    }
+
+    @Test
+    void lateFinishEvictsTheClosedMonth() {
+        assertRevenue("100.00", lastMonthReport());
+
+        Order late = placeLastMonth("In Progress", new OrderItem("Tom Yum", new BigDecimal("60.00"), 1));
+        orderService.updateOrderStatus(late.getId(), "Finish");
+
+        ReportSummary report = lastMonthReport();
+        assertRevenue("160.00", report);
+        assertEquals(0, new BigDecimal("160.00").compareTo(report.getMonthlySales().get(lastMonth.getMonthValue() - 1)));
+    }
+
+    @Test
+    void lateFinishDuringAComputationIsNotOverwritten() throws Exception {
+        Order late = placeLastMonth("In Progress", new OrderItem("Tom Yum", new BigDecimal("60.00"), 1));
+        CountDownLatch computed = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            Object summary = invocation.callRealMethod();
+            if (lastMonth.getMonthValue() == (Integer) invocation.getArgument(0) && first.getAndSet(false)) {
+                computed.countDown();
+                assertTrue(finished.await(10, TimeUnit.SECONDS));
+            }
+            return summary;
+        }).when(delegate).getMonthlyReport(any(), any());
+
+        // Reads the totals from before the late finish, then tries to keep them
+        CompletableFuture<ReportSummary> stale = CompletableFuture.supplyAsync(this::lastMonthReport);
+        assertTrue(computed.await(10, TimeUnit.SECONDS));
+        orderService.updateOrderStatus(late.getId(), "Finish");
+        finished.countDown();
+        assertRevenue("100.00", stale.get(10, TimeUnit.SECONDS));
+
+        assertRevenue("160.00", lastMonthReport());
+    }
+
+    private ReportSummary lastMonthReport() {
+        return reportService.getMonthlyReport(lastMonth.getMonthValue(), lastMonth.getYear());
+    }
+
+    private static void assertRevenue(String expected, ReportSummary report) {
+        assertEquals(0, new BigDecimal(expected).compareTo(report.getTotalRevenue()));
+    }
+
+    private Order placeLastMonth(String status, OrderItem... items) {
+        Customer customer = customerRepository.findByUsername("report_customer")
+                .orElseGet(() -> customerRepository.save(new Customer("Report Customer", "report_customer",
+                        "report@example.com", "0812345678", "not-a-real-hash")));
+        Order order = new Order();
+        order.setCustomer(customer);
+        for (OrderItem item : items) {
+            order.addOrderItem(item);
+        }
+        order.calculateTotalAmount();
+        order.setStatus(status);
+        order = orderRepository.save(order);
+        // created_at is set on insert; move the order into last month
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(lastMonth.atDay(15).atTime(12, 0)), order.getId());
+        return order;
+    }
+}
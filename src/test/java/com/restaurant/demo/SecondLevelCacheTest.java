@@ -0,0 +1,78 @@
+package com.restaurant.demo;
+
+import com.restaurant.demo.model.Customer;
+import com.restaurant.demo.repository.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Primary-key and username lookups are answered from the second-level cache.
+ * Not transactional: every repository call is its own session, as in production.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "app.cart.retention.enabled=false",
+        "app.orders.archive.enabled=false"
+})
+class SecondLevelCacheTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.deleteAll();
+        customer = customerRepository.save(new Customer("Cache Test", "cached", "cached@example.com", "0812345678", "not-a-real-hash"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByIdIsServedFromTheCache() {
+        // IDENTITY inserts are not cached, so the first lookup loads the row
+        customerRepository.findById(customer.getId()).orElseThrow();
+        long statementsAfterFirstLookup = statistics.getPrepareStatementCount();
+        customerRepository.findById(customer.getId()).orElseThrow();
+
+        assertEquals(statementsAfterFirstLookup, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void findByUsernameIsServedFromTheQueryCache() {
+        customerRepository.findByUsername("cached").orElseThrow();
+        long statementsAfterFirstLookup = statistics.getPrepareStatementCount();
+        customerRepository.findByUsername("cached").orElseThrow();
+
+        assertEquals(statementsAfterFirstLookup, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void updatesReplaceTheCachedEntity() {
+        Customer loaded = customerRepository.findById(customer.getId()).orElseThrow();
+        loaded.setName("Renamed");
+        customerRepository.save(loaded);
+
+        assertEquals("Renamed", customerRepository.findById(customer.getId()).orElseThrow().getName());
+    }
+}
@@ -0,0 +1,112 @@
+package com.restaurant.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.demo.config.branch.Branches;
+import com.restaurant.demo.model.CartItem;
+import com.restaurant.demo.model.Customer;
+import com.restaurant.demo.model.Money;
+import com.restaurant.demo.repository.CustomerRepository;
+import com.restaurant.demo.service.cart.WriteBehindCartStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A write-behind checkout only deletes the cart rows once the order commits; a rollback
+ * puts the lines back, merged with anything added for the same menu item meanwhile.
+ */
+class WriteBehindCheckoutTest {
+
+    @TempDir
+    Path journalDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private WriteBehindCartStore store;
+    private final Customer customer = new Customer();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:write-behind-checkout;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS cart_items");
+        jdbcTemplate.execute("CREATE TABLE cart_items (id BIGINT PRIMARY KEY, customer_id BIGINT NOT NULL, menu_item_id BIGINT, "
+                + "item_name VARCHAR(100) NOT NULL, item_price DECIMAL(6, 2) NOT NULL, quantity INT NOT NULL, "
+                + "status VARCHAR(20) NOT NULL, created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL, "
+                + "CONSTRAINT uk_cart_items_customer_menu_item_status UNIQUE (customer_id, menu_item_id, status))");
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        store = new WriteBehindCartStore(dataSource, transactionManager, mock(CustomerRepository.class), mock(Branches.class),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry(), journalDir, false, Duration.ofHours(1));
+        store.afterSingletonsInstantiated();
+
+        customer.setId(1L);
+        store.addPending(customer, 7L, "Bamee", Money.ofMinor(5000), 2);
+        store.flush();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.destroy();
+    }
+
+    @Test
+    void rowsAreDeletedOnlyAfterTheOrderCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals(1, store.checkout(customer).size());
+            flushFromAnotherThread();
+            assertEquals(1, countRows());
+        });
+        store.flush();
+
+        assertEquals(0, countRows());
+    }
+
+    @Test
+    void rollbackMergesIntoALineAddedMeanwhile() {
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            store.checkout(customer);
+            store.addPending(customer, 7L, "Bamee", Money.ofMinor(5000), 3);
+            // Must not insert a second Pending row next to the one being ordered
+            flushFromAnotherThread();
+            throw new IllegalStateException("order failed");
+        }));
+
+        List<CartItem> cart = store.findByCustomer(customer);
+        assertEquals(1, cart.size());
+        assertEquals(5, cart.get(0).getQuantity());
+        store.flush();
+        assertEquals(List.of(5), jdbcTemplate.queryForList("SELECT quantity FROM cart_items", Integer.class));
+    }
+
+    // The flusher runs on its own thread and connection, outside the order's transaction
+    private void flushFromAnotherThread() {
+        Thread flusher = new Thread(store::flush);
+        flusher.start();
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int countRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items", Integer.class);
+    }
+}
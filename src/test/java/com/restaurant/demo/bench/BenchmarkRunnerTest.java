@@ -0,0 +1,33 @@
+package com.restaurant.demo.bench;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the JMH benchmarks in this package with the GC profiler attached.
+ * Excluded from the normal build; run with {@code mvn test -Pbench}, optionally
+ * narrowed with -Dbench.include=MoneyBenchmark. Results go to target/jmh/results.json.
+ */
+@Tag("bench")
+class BenchmarkRunnerTest {
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        new File("target/jmh").mkdirs();
+        Options options = new OptionsBuilder()
+                .include(getClass().getPackageName() + "." + System.getProperty("bench.include", ".*Benchmark"))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh/results.json")
+                .build();
+        new Runner(options).run();
+    }
+}
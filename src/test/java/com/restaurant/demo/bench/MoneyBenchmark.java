@@ -0,0 +1,95 @@
+package com.restaurant.demo.bench;
+
+import com.restaurant.demo.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order and report totals with BigDecimal (the old placeOrder / calculateTotalAmount code),
+ * double (the old SalesReport revenue), Money.plus chains and Money.Sum.
+ *
+ * Run with {@code mvn test -Pbench} (see BenchmarkRunnerTest); gc.alloc.rate.norm shows
+ * the bytes allocated per total.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    // A typical order and a month of completed orders in the sales report
+    @Param({"5", "10000"})
+    public int lines;
+
+    private BigDecimal[] decimalPrices;
+    private double[] doublePrices;
+    private Money[] moneyPrices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        decimalPrices = new BigDecimal[lines];
+        doublePrices = new double[lines];
+        moneyPrices = new Money[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            long satang = 2500 + random.nextInt(200) * 25L;
+            decimalPrices[i] = BigDecimal.valueOf(satang, 2);
+            doublePrices[i] = satang / 100.0;
+            moneyPrices[i] = Money.ofMinor(satang);
+            quantities[i] = 1 + random.nextInt(4);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalTotal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            total = total.add(decimalPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double doubleTotal() {
+        double total = 0;
+        for (int i = 0; i < lines; i++) {
+            total += doublePrices[i] * quantities[i];
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money moneyTotal() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < lines; i++) {
+            total = total.plus(moneyPrices[i].times(quantities[i]));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money moneySum() {
+        Money.Sum total = new Money.Sum();
+        for (int i = 0; i < lines; i++) {
+            total.addLine(moneyPrices[i], quantities[i]);
+        }
+        return total.toMoney();
+    }
+}
@@ -0,0 +1,333 @@
+package com.restaurant.demo.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.demo.dto.EmployeeRegistrationDto;
+import com.restaurant.demo.service.ManagerService;
+import com.restaurant.demo.service.dataset.DatasetGenerator;
+import com.restaurant.demo.service.dataset.DatasetLoadedEvent;
+import com.restaurant.demo.service.dataset.DatasetSpec;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mixed-traffic load harness. Boots the application on a random port against H2, loads a
+ * synthetic dataset, then runs concurrent virtual users over real HTTP:
+ *
+ * - customers log in, browse the menu, edit their cart and place orders
+ * - kitchen tablets poll the queue and move orders through In Progress to Finish
+ * - managers open the monthly report
+ *
+ * Prints throughput, latency percentiles and error rate per endpoint and writes the same
+ * numbers to target/load-report/. Excluded from the normal build; run with
+ * {@code mvn test -Pload}, tuning with -Dload.duration=60 -Dload.customers=32 etc.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.web=WARN",
+        "logging.level.com.restaurant.demo=WARN"
+})
+class LoadHarnessTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadHarnessTest.class);
+
+    private static final String PASSWORD = "password123";
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"[^>]*value=\"([^\"]+)\"");
+
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup", 5);
+    private static final int CUSTOMERS = Integer.getInteger("load.customers", 16);
+    private static final int KITCHEN = Integer.getInteger("load.kitchen", 4);
+    private static final int MANAGERS = Integer.getInteger("load.managers", 1);
+    private static final long ORDERS = Long.getLong("load.orders", 50_000L);
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ManagerService managerService;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoadRecorder recorder = new LoadRecorder();
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    @Test
+    void mixedTraffic() throws Exception {
+        DatasetSpec spec = new DatasetSpec(Math.max(200, CUSTOMERS * 4), 60, ORDERS, 50, 90, 1000, 7L, PASSWORD);
+        new DatasetGenerator(dataSource, passwordEncoder.encode(PASSWORD)).load(spec);
+        // Same refresh as DatasetLoader: every cache and in-memory model rebuilds from the loaded rows
+        events.publishEvent(new DatasetLoadedEvent(spec));
+
+        List<Long> customerIds = new JdbcTemplate(dataSource)
+                .queryForList("SELECT id FROM customers ORDER BY id", Long.class);
+        for (int i = 0; i < KITCHEN; i++) {
+            managerService.registerEmployee(new EmployeeRegistrationDto("Load Cook", "Chef", "loadcook" + i, PASSWORD));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(CUSTOMERS + KITCHEN + MANAGERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            long customerId = customerIds.get(i);
+            executor.submit(() -> runUser(() -> customer(customerId)));
+        }
+        for (int i = 0; i < KITCHEN; i++) {
+            String username = "loadcook" + i;
+            executor.submit(() -> runUser(() -> kitchen(username)));
+        }
+        for (int i = 0; i < MANAGERS; i++) {
+            executor.submit(() -> runUser(this::manager));
+        }
+
+        TimeUnit.SECONDS.sleep(WARMUP_SECONDS);
+        measuring = true;
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(DURATION_SECONDS);
+        measuring = false;
+        long elapsed = System.nanoTime() - start;
+        running = false;
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        report(elapsed);
+
+        double errorRate = recorder.totalRequests() == 0 ? 1 : (double) recorder.totalErrors() / recorder.totalRequests();
+        assertTrue(recorder.totalRequests() > 0, "No requests completed");
+        assertTrue(errorRate <= MAX_ERROR_RATE, String.format("Error rate %.2f%% above %.2f%%", errorRate * 100, MAX_ERROR_RATE * 100));
+    }
+
+    // ---------------------------------------------------------------- scenarios
+
+    private void customer(long customerId) throws Exception {
+        VirtualUser user = new VirtualUser();
+        String token = csrfToken(user.send("GET /login", "GET", "/login", null, null, ok()));
+        user.send("POST /login", "POST", "/login", "application/x-www-form-urlencoded",
+                form("username", "seed" + customerId, "password", PASSWORD, "_csrf", token), status -> status == 302);
+
+        while (running) {
+            JsonNode menu = user.json("GET /api/menuItems", "GET", "/api/menuItems", ok());
+            List<Long> cartItemIds = new ArrayList<>();
+            int lines = 1 + random().nextInt(3);
+            for (int i = 0; i < lines && menu != null && menu.size() > 0; i++) {
+                long menuItemId = menu.get(random().nextInt(menu.size())).path("id").asLong();
+                JsonNode item = user.json("POST /api/cart/add", "POST",
+                        "/api/cart/add?customerId=" + customerId + "&menuItemId=" + menuItemId + "&quantity=" + (1 + random().nextInt(2)),
+                        ok());
+                if (item != null) {
+                    cartItemIds.add(item.path("id").asLong());
+                }
+                think(50, 150);
+            }
+            if (!cartItemIds.isEmpty() && random().nextInt(5) == 0) {
+                user.send("PUT /api/cart/update/{cartItemId}", "PUT",
+                        "/api/cart/update/" + cartItemIds.get(0) + "?customerId=" + customerId + "&quantity=3", null, null, ok());
+            }
+            if (cartItemIds.size() > 1 && random().nextInt(10) == 0) {
+                user.send("DELETE /api/cart/remove/{cartItemId}", "DELETE",
+                        "/api/cart/remove/" + cartItemIds.get(1) + "?customerId=" + customerId, null, null, ok());
+            }
+            user.send("GET /api/cart/customer/{customerId}", "GET", "/api/cart/customer/" + customerId, null, null, ok());
+
+            if (random().nextInt(10) < 6) {
+                user.send("POST /api/orders/customers/{customerId}/place-order", "POST",
+                        "/api/orders/customers/" + customerId + "/place-order", null, null, ok());
+            } else {
+                user.send("DELETE /api/cart/clear/{customerId}", "DELETE", "/api/cart/clear/" + customerId, null, null, ok());
+            }
+            if (random().nextInt(10) < 3) {
+                user.send("GET /api/orders/customers/{customerId}/orders", "GET",
+                        "/api/orders/customers/" + customerId + "/orders", null, null, ok());
+            }
+            think(100, 300);
+        }
+    }
+
+    private void kitchen(String username) throws Exception {
+        VirtualUser user = new VirtualUser();
+        user.send("POST /api/employees/login", "POST", "/api/employees/login", "application/json",
+                objectMapper.writeValueAsString(new LoginBody(username, PASSWORD)), ok());
+
+        while (running) {
+            user.send("GET /api/employees/orders/pending/count", "GET", "/api/employees/orders/pending/count", null, null, ok());
+            advanceOldest(user, "Pending", "In Progress");
+            advanceOldest(user, "In Progress", "Finish");
+            think(200, 400);
+        }
+    }
+
+    private void advanceOldest(VirtualUser user, String from, String to) throws Exception {
+        JsonNode orders = user.json("GET /api/employees/orders?status=" + from, "GET",
+                "/api/employees/orders?status=" + URLEncoder.encode(from, StandardCharsets.UTF_8), ok());
+        if (orders == null || orders.isEmpty()) {
+            return;
+        }
+        // Another tablet may have taken the same order; a rejected transition is expected, not an error
+        long orderId = orders.get(random().nextInt(Math.min(3, orders.size()))).path("orderId").asLong();
+        user.send("PUT /api/employees/orders/{orderId}/status", "PUT", "/api/employees/orders/" + orderId + "/status",
+                "application/json", "{\"newStatus\":\"" + to + "\"}", status -> status < 300 || status == 400);
+    }
+
+    private void manager() throws Exception {
+        VirtualUser user = new VirtualUser();
+        int year = LocalDate.now().getYear();
+        while (running) {
+            String query = random().nextBoolean() ? "?year=" + year : "?year=" + year + "&month=" + LocalDate.now().getMonthValue();
+            user.send("GET /api/reports/monthly", "GET", "/api/reports/monthly" + query, null, null, ok());
+            think(800, 1200);
+        }
+    }
+
+    // ---------------------------------------------------------------- plumbing
+
+    private interface Scenario {
+        void run() throws Exception;
+    }
+
+    private record LoginBody(String username, String password) {}
+
+    private void runUser(Scenario scenario) {
+        try {
+            scenario.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            recorder.record("SCENARIO ABORTED", 0, true);
+            logger.warn("Virtual user aborted its scenario", e);
+        }
+    }
+
+    private final class VirtualUser {
+
+        private final HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        String send(String endpoint, String method, String path, String contentType, String body, IntPredicate expected)
+                throws IOException, InterruptedException {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+            if (contentType != null) {
+                request.header("Content-Type", contentType);
+            }
+            long start = System.nanoTime();
+            int status;
+            String responseBody;
+            try {
+                HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+                responseBody = response.body();
+            } catch (IOException e) {
+                status = -1;
+                responseBody = null;
+            }
+            boolean error = !expected.test(status);
+            if (measuring) {
+                recorder.record(endpoint, System.nanoTime() - start, error);
+            }
+            return error ? null : responseBody;
+        }
+
+        JsonNode json(String endpoint, String method, String path, IntPredicate expected) throws IOException, InterruptedException {
+            String body = send(endpoint, method, path, null, null, expected);
+            return body == null || body.isEmpty() ? null : objectMapper.readTree(body);
+        }
+    }
+
+    private static IntPredicate ok() {
+        return status -> status >= 200 && status < 300;
+    }
+
+    private static String csrfToken(String loginPage) {
+        Matcher matcher = CSRF.matcher(loginPage == null ? "" : loginPage);
+        return matcher.find() ? matcher.group(1) : "";
+    }
+
+    private static String form(String... pairs) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (body.length() > 0) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(pairs[i], StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(pairs[i + 1], StandardCharsets.UTF_8));
+        }
+        return body.toString();
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+
+    private static void think(int minMillis, int maxMillis) throws InterruptedException {
+        Thread.sleep(minMillis + random().nextInt(maxMillis - minMillis + 1));
+    }
+
+    private void report(long elapsedNanos) throws IOException {
+        String header = String.format("Load run: %ds measured after %ds warm-up, %d customers / %d kitchen / %d managers, %d seeded orders%n",
+                DURATION_SECONDS, WARMUP_SECONDS, CUSTOMERS, KITCHEN, MANAGERS, ORDERS);
+        String table = recorder.table(elapsedNanos);
+        System.out.println();
+        System.out.print(header);
+        System.out.print(table);
+
+        Path directory = Path.of("target", "load-report");
+        Files.createDirectories(directory);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Files.writeString(directory.resolve("load-" + stamp + ".csv"), recorder.csv(elapsedNanos));
+        Files.writeString(directory.resolve("latest.txt"), header + table);
+    }
+}
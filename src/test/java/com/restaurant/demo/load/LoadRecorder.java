@@ -0,0 +1,119 @@
+package com.restaurant.demo.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects per-endpoint latencies and errors from the virtual users and renders the report.
+ * Endpoints are keyed by method and URI template so IDs do not split the statistics.
+ */
+class LoadRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, boolean error) {
+        endpoints.computeIfAbsent(endpoint, key -> new Endpoint()).record(nanos, error);
+    }
+
+    long totalRequests() {
+        return endpoints.values().stream().mapToLong(Endpoint::count).sum();
+    }
+
+    long totalErrors() {
+        return endpoints.values().stream().mapToLong(Endpoint::errors).sum();
+    }
+
+    /**
+     * Render the report as a fixed-width table
+     *
+     * @param elapsedNanos Wall-clock duration of the measured phase
+     */
+    String table(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-52s %8s %7s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "err%", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Row row : rows(seconds)) {
+            out.append(String.format("%-52s %8d %7d %7.2f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    row.endpoint, row.count, row.errors, row.errorRate * 100, row.throughput,
+                    row.p50, row.p95, row.p99, row.max));
+        }
+        out.append(String.format("%-52s %8d %7d %7.2f %9.1f%n", "TOTAL", totalRequests(), totalErrors(),
+                totalRequests() == 0 ? 0 : 100.0 * totalErrors() / totalRequests(), totalRequests() / seconds));
+        return out.toString();
+    }
+
+    /**
+     * Render the report as CSV so runs from different releases can be diffed or charted
+     *
+     * @param elapsedNanos Wall-clock duration of the measured phase
+     */
+    String csv(long elapsedNanos) {
+        StringBuilder out = new StringBuilder("endpoint,requests,errors,error_rate,requests_per_second,p50_ms,p95_ms,p99_ms,max_ms\n");
+        for (Row row : rows(elapsedNanos / 1e9)) {
+            out.append(String.format("\"%s\",%d,%d,%.4f,%.2f,%.2f,%.2f,%.2f,%.2f%n",
+                    row.endpoint, row.count, row.errors, row.errorRate, row.throughput, row.p50, row.p95, row.p99, row.max));
+        }
+        return out.toString();
+    }
+
+    private List<Row> rows(double seconds) {
+        List<Row> rows = new ArrayList<>();
+        endpoints.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> rows.add(entry.getValue().summarize(entry.getKey(), seconds)));
+        return rows;
+    }
+
+    private record Row(String endpoint, long count, long errors, double errorRate, double throughput,
+                       double p50, double p95, double p99, double max) {}
+
+    private static final class Endpoint {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void record(long nanos, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+
+        synchronized Row summarize(String endpoint, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Row(endpoint, count, errors, count == 0 ? 0 : (double) errors / count, count / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    count == 0 ? 0 : millis(sorted[count - 1]));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return millis(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}